@@ -21,9 +21,15 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -36,6 +42,7 @@ import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExceptionAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.cache.Cache;
+import org.auraframework.css.StyleContext;
 import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
@@ -71,8 +78,11 @@ import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.AuraLocalStore;
 import org.auraframework.system.BundleSource;
+import org.auraframework.system.Client;
 import org.auraframework.system.DefRegistry;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.Location;
@@ -1028,6 +1038,7 @@ public class DefinitionServiceImpl implements DefinitionService {
         threadLinker.set(linker);
         try {
             linker.addMap(globalControllerDefRegistry.getAll());
+            linker.setPrefetchExecutor(getPrefetchExecutor(context));
             Definition def;
             loggingService.startTimer(LoggingService.TIMER_DEFINITION_CREATION);
             try {
@@ -1046,7 +1057,7 @@ public class DefinitionServiceImpl implements DefinitionService {
             // Now walk the sorted list, building up our dependencies, and uid
             //
             StringBuilder sb = new StringBuilder(256);
-            Hash.StringBuilder globalBuilder = new Hash.StringBuilder();
+            Hash.StringBuilder globalBuilder = new Hash.StringBuilder(Hash.getUidAlgorithm());
             for (LinkingDefinition<?> cd : sorted) {
                 if (cd.def == null) {
                     // actually, this should never happen.
@@ -1184,6 +1195,119 @@ public class DefinitionServiceImpl implements DefinitionService {
 
     private final ThreadLocal<AuraLinker> threadLinker = new ThreadLocal<>();
 
+    private volatile ExecutorService prefetchPool;
+
+    /**
+     * Get an executor for building definitions in parallel during a link.
+     *
+     * Tasks run on a shared pool, sized by the <code>aura.linker.prefetchThreads</code> system property. Each task
+     * runs in its own context, set up like the linking context: the same mode, format, access and registries, and
+     * the same application, client, locales and compat and style settings, which are all read here on the linking
+     * thread because a context is not safe to share. If a task cannot get a context it builds nothing, and the link
+     * walk builds that definition on the linking thread. A size of zero turns parallel building off.
+     *
+     * @param context the context of the linking thread.
+     * @return the executor, or null if parallel building is off.
+     */
+    @CheckForNull
+    private Executor getPrefetchExecutor(AuraContext context) {
+        ExecutorService pool = getPrefetchPool();
+        if (pool == null) {
+            return null;
+        }
+        Mode mode = context.getMode();
+        Format format = context.getFormat();
+        Authentication access = context.getAccess();
+        RegistrySet registries = context.getRegistries();
+        Consumer<AuraContext> copy = copyOf(context);
+        return task -> pool.execute(() -> {
+            try {
+                copy.accept(contextService.startBasicContext(mode, format, access, registries));
+            } catch (Throwable t) {
+                if (contextService.isEstablished()) {
+                    contextService.endContext();
+                }
+                AuraLinker.skipPrefetch(task);
+                return;
+            }
+            try {
+                task.run();
+            } finally {
+                contextService.endContext();
+            }
+        });
+    }
+
+    /**
+     * Take the parts of a context that building a definition can depend on, to set them on another context later.
+     */
+    private static Consumer<AuraContext> copyOf(AuraContext context) {
+        String contextPath = context.getContextPath();
+        DefDescriptor<? extends BaseComponentDef> appDesc = context.getApplicationDescriptor();
+        DefDescriptor<? extends BaseComponentDef> loadingAppDesc = context.getLoadingApplicationDescriptor();
+        Client client = context.getClient();
+        Set<DefDescriptor<?>> preloaded = Sets.newHashSet(context.getPreloadedDefinitions());
+        List<Locale> locales = context.getRequestedLocales();
+        String frameworkUID = context.getFrameworkUID();
+        StyleContext styleContext = context.getStyleContext();
+        boolean useCompatSource = context.useCompatSource();
+        boolean forceCompat = context.forceCompat();
+        boolean systemMode = context.isSystemMode();
+        return target -> {
+            target.setContextPath(contextPath);
+            target.setApplicationDescriptor(appDesc);
+            target.setLoadingApplicationDescriptor(loadingAppDesc);
+            if (client != null) {
+                target.setClient(client);
+            }
+            target.setPreloadedDefinitions(preloaded);
+            if (locales != null) {
+                target.setRequestedLocales(locales);
+            }
+            target.setFrameworkUID(frameworkUID);
+            if (styleContext != null) {
+                target.setStyleContext(styleContext);
+            }
+            target.setUseCompatSource(useCompatSource);
+            target.setForceCompat(forceCompat);
+            target.setSystemMode(systemMode);
+        };
+    }
+
+    @CheckForNull
+    private ExecutorService getPrefetchPool() {
+        if (prefetchPool == null) {
+            int threads = getPrefetchThreads();
+            if (threads <= 0) {
+                return null;
+            }
+            synchronized (this) {
+                if (prefetchPool == null) {
+                    AtomicInteger count = new AtomicInteger();
+                    prefetchPool = Executors.newFixedThreadPool(threads, r -> {
+                        Thread thread = new Thread(r, "auraLinker.prefetch." + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return prefetchPool;
+    }
+
+    private static int getPrefetchThreads() {
+        int threads = Math.min(8, Runtime.getRuntime().availableProcessors() - 1);
+        String prop = System.getProperty("aura.linker.prefetchThreads");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                threads = Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return threads;
+    }
+
     @Override
     public void warmCaches() {
         AuraContext context = contextService.getCurrentContext();
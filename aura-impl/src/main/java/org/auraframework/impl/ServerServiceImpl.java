@@ -54,6 +54,7 @@ import org.auraframework.http.BootstrapUtil;
 import org.auraframework.http.ManifestUtil;
 import org.auraframework.impl.cache.ApplicationInitializerCache;
 import org.auraframework.impl.css.CssVariableWriter;
+import org.auraframework.impl.css.StyleCodeCache;
 import org.auraframework.impl.css.StyleDefWriter;
 import org.auraframework.impl.util.BrowserUserAgent;
 import org.auraframework.impl.util.TemplateUtil;
@@ -389,12 +390,15 @@ public class ServerServiceImpl implements ServerService {
     @Inject
     private StyleAdapter styleAdapter;
 
+    @Inject
+    private StyleCodeCache styleCodeCache;
+
     private String getAppCssString(Set<DefDescriptor<?>> dependencies, boolean enableCssVarOutput) throws QuickFixException, IOException {
         Collection<BaseStyleDef> orderedStyleDefs = filterAndLoad(BaseStyleDef.class, dependencies, null);
         StringBuffer sb = new StringBuffer();
         styleAdapter.setSkipCssTransform(!enableCssVarOutput);
-        new StyleDefWriter(definitionService, styleAdapter, contextService.getCurrentContext())
-            .writeStyleDefs(orderedStyleDefs, sb);
+        new StyleDefWriter(definitionService, styleAdapter, contextService.getCurrentContext(), styleCodeCache,
+                enableCssVarOutput).writeStyleDefs(orderedStyleDefs, sb);
         styleAdapter.setSkipCssTransform(false);
         return sb.toString();
     }
@@ -839,6 +843,17 @@ public class ServerServiceImpl implements ServerService {
             T value, Map<String, Object> componentAttributes, Appendable out)
             throws IOException, QuickFixException {
 
+        ComponentDef templateDef = value.getTemplateDef();
+        Map<String, Object> attributes = getTemplateAttributes(context, value, componentAttributes);
+        Component template = instanceService.getInstance(templateDef.getDescriptor(), attributes);
+        return template;
+    }
+
+    @Override
+    public <T extends BaseComponentDef> Map<String, Object> getTemplateAttributes(AuraContext context,
+            T value, Map<String, Object> componentAttributes)
+            throws IOException, QuickFixException {
+
         ComponentDef templateDef = value.getTemplateDef();
         Map<String, Object> attributes = Maps.newHashMap();
         Mode mode = context.getMode();
@@ -952,7 +967,6 @@ public class ServerServiceImpl implements ServerService {
             attributes.put("auraInit", JsonEncoder.serialize(auraInit));
         }
 
-        Component template = instanceService.getInstance(templateDef.getDescriptor(), attributes);
-        return template;
+        return attributes;
     }
 }
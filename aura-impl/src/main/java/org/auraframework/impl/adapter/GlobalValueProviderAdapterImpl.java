@@ -50,12 +50,15 @@ public class GlobalValueProviderAdapterImpl implements GlobalValueProviderAdapte
     @Inject
     private LocalizationService localizationService;
 
+    @Inject
+    private LabelCache labelCache;
+
     @Override
     public List<GlobalValueProvider> createValueProviders() {
         List<GlobalValueProvider> l = new LinkedList<>();
 
         // $Label.Section.Key
-        l.add(new LabelValueProvider(localizationAdapter, definitionService));
+        l.add(new LabelValueProvider(localizationAdapter, definitionService, labelCache));
 
         // $Locale
         l.add(new LocaleValueProvider(localizationService, localizationAdapter, definitionService));
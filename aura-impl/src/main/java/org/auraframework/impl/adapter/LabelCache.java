@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+
+import org.auraframework.adapter.LocalizationAdapter;
+import org.auraframework.adapter.LoggingAdapter;
+import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.cache.Cache;
+import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.util.AuraTextUtil;
+
+/**
+ * Process wide cache of unescaped label values, keyed by language locale, section and name.
+ *
+ * The {@link LocalizationAdapter} remains the loader, this only keeps what it returned so that
+ * repeat requests for the same locale do not go back to the adapter. Labels that the adapter
+ * does not return are not cached.
+ */
+@ServiceComponent
+public class LabelCache {
+    /** Default size of the label cache, in number of entries */
+    private final static int LABEL_CACHE_SIZE = 64 * 1024;
+
+    private final Cache<Key, String> cache;
+
+    @Inject
+    public LabelCache(LoggingAdapter loggingAdapter) {
+        this(loggingAdapter, getCacheSize());
+    }
+
+    LabelCache(LoggingAdapter loggingAdapter, int size) {
+        this.cache = new CacheImpl.Builder<Key, String>()
+                .setInitialSize(Math.min(size, 1024))
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("labelCache")
+                .setSoftValues(false).build();
+    }
+
+    /**
+     * Get a single label, loading it through the adapter if it is not cached.
+     *
+     * @param locale the language locale of the label.
+     * @param section the section of the label.
+     * @param name the name of the label.
+     * @param loader the adapter used to fetch the raw label.
+     * @return the unescaped label, or null if the adapter has no value.
+     */
+    public String getLabel(String locale, String section, String name, LocalizationAdapter loader) {
+        Key key = new Key(locale, section, name);
+        String value = cache.getIfPresent(key);
+        if (value == null) {
+            // people escape stuff like &copy; in the labels, aura doesn't need that.
+            value = AuraTextUtil.unescapeOutput(loader.getLabel(section, name), false);
+            if (value != null) {
+                cache.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get a set of labels, loading all of the misses through the adapter in a single call.
+     *
+     * @param locale the language locale of the labels.
+     * @param keys a map of section to the set of names in that section.
+     * @param loader the adapter used to fetch the raw labels that are not cached.
+     * @return a map of section to name-value pairs, containing only the labels that have values.
+     */
+    public Map<String, Map<String, String>> getLabels(String locale, Map<String, Set<String>> keys,
+            LocalizationAdapter loader) {
+        Map<String, Map<String, String>> result = new HashMap<>();
+        Map<String, Set<String>> uncached = new HashMap<>();
+
+        for (Map.Entry<String, Set<String>> entry : keys.entrySet()) {
+            String section = entry.getKey();
+            for (String name : entry.getValue()) {
+                String value = cache.getIfPresent(new Key(locale, section, name));
+                if (value != null) {
+                    addLabel(result, section, name, value);
+                } else {
+                    Set<String> names = uncached.get(section);
+                    if (names == null) {
+                        names = new HashSet<>();
+                        uncached.put(section, names);
+                    }
+                    names.add(name);
+                }
+            }
+        }
+
+        if (uncached.isEmpty()) {
+            return result;
+        }
+
+        Map<String, Map<String, String>> loaded = loader.getLabels(uncached);
+        if (loaded == null) {
+            return result;
+        }
+        for (Map.Entry<String, Map<String, String>> entry : loaded.entrySet()) {
+            String section = entry.getKey();
+            for (Map.Entry<String, String> nameToValue : entry.getValue().entrySet()) {
+                String name = nameToValue.getKey();
+                // people escape stuff like &copy; in the labels, aura doesn't need that.
+                String value = AuraTextUtil.unescapeOutput(nameToValue.getValue(), false);
+                if (value != null) {
+                    cache.put(new Key(locale, section, name), value);
+                }
+                addLabel(result, section, name, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop every cached label in a section, for all locales.
+     */
+    public void invalidateSection(String section) {
+        if (section == null) {
+            section = "";
+        }
+        List<Key> invalid = new ArrayList<>();
+        for (Key key : cache.getKeySet()) {
+            if (key.section.equals(section)) {
+                invalid.add(key);
+            }
+        }
+        cache.invalidate(invalid);
+    }
+
+    /**
+     * Drop every cached label for a locale.
+     */
+    public void invalidateLocale(String locale) {
+        List<Key> invalid = new ArrayList<>();
+        for (Key key : cache.getKeySet()) {
+            if (key.locale.equals(locale)) {
+                invalid.add(key);
+            }
+        }
+        cache.invalidate(invalid);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void addLabel(Map<String, Map<String, String>> map, String section, String name, String label) {
+        Map<String, String> labels = map.get(section);
+        if (labels == null) {
+            labels = new HashMap<>();
+            map.put(section, labels);
+        }
+        labels.put(name, label);
+    }
+
+    private static int getCacheSize() {
+        String prop = System.getProperty("aura.cache.labelCacheSize");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return LABEL_CACHE_SIZE;
+    }
+
+    private static final class Key {
+        private final String locale;
+        private final String section;
+        private final String name;
+        private final int hashCode;
+
+        Key(String locale, String section, String name) {
+            this.locale = locale;
+            this.section = section == null ? "" : section;
+            this.name = name;
+            this.hashCode = (31 * (31 * locale.hashCode() + this.section.hashCode())) + name.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode && name.equals(other.name) && section.equals(other.section)
+                    && locale.equals(other.locale);
+        }
+
+        @Override
+        public String toString() {
+            return locale + ":" + section + "." + name;
+        }
+    }
+}
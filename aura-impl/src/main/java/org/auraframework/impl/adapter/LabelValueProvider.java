@@ -30,6 +30,7 @@ import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.instance.ValueProviderType;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
+import org.auraframework.util.AuraLocale;
 import org.auraframework.util.AuraTextUtil;
 
 /**
@@ -41,10 +42,24 @@ public class LabelValueProvider implements GlobalValueProvider {
 
     private final LocalizationAdapter localizationAdapter;
     private final DefinitionService definitionService;
+    private final LabelCache labelCache;
+
+    private String locale;
 
     public LabelValueProvider(LocalizationAdapter localizationAdapter, DefinitionService definitionService) {
+        this(localizationAdapter, definitionService, null);
+    }
+
+    /**
+     * Create a label provider backed by a shared cache.
+     *
+     * @param labelCache the process wide label cache, or null to always go to the adapter.
+     */
+    public LabelValueProvider(LocalizationAdapter localizationAdapter, DefinitionService definitionService,
+            LabelCache labelCache) {
         this.localizationAdapter = localizationAdapter;
         this.definitionService = definitionService;
+        this.labelCache = labelCache;
 
         this.labels = new HashMap<>();
     }
@@ -62,14 +77,37 @@ public class LabelValueProvider implements GlobalValueProvider {
 
         String ret = m.get(param);
         if (ret == null) {
-            String label = localizationAdapter.getLabel(section, param);
-            // people escape stuff like &copy; in the labels, aura doesn't need that.
-            ret = AuraTextUtil.unescapeOutput(label, false);
+            String locale = getLocale();
+            if (locale != null) {
+                ret = labelCache.getLabel(locale, section, param, localizationAdapter);
+            } else {
+                String label = localizationAdapter.getLabel(section, param);
+                // people escape stuff like &copy; in the labels, aura doesn't need that.
+                ret = AuraTextUtil.unescapeOutput(label, false);
+            }
             m.put(param, ret);
         }
         return ret;
     }
 
+    /**
+     * Get the language locale used to key the shared cache.
+     *
+     * @return the locale string, or null if there is no shared cache or no locale to key it with.
+     */
+    private String getLocale() {
+        if (labelCache == null) {
+            return null;
+        }
+        if (locale == null) {
+            AuraLocale auraLocale = localizationAdapter.getAuraLocale();
+            if (auraLocale != null && auraLocale.getLanguageLocale() != null) {
+                locale = auraLocale.getLanguageLocale().toString();
+            }
+        }
+        return locale;
+    }
+
     @Override
     public ValueProviderType getValueProviderKey() {
         return AuraValueProviderType.LABEL;
@@ -136,7 +174,21 @@ public class LabelValueProvider implements GlobalValueProvider {
             return;
         }
 
-        Map<String, Map<String, String>> labels = this.localizationAdapter.getLabels(uncachedLabels);
+        Map<String, Map<String, String>> labels;
+        String locale = getLocale();
+        if (locale != null) {
+            // the shared cache has already unescaped its values.
+            labels = labelCache.getLabels(locale, uncachedLabels, localizationAdapter);
+            for (Map.Entry<String, Map<String, String>> entry : labels.entrySet()) {
+                String section = entry.getKey();
+                for (Map.Entry<String, String> nameToValue : entry.getValue().entrySet()) {
+                    this.addLabelToMap(this.labels, section, nameToValue.getKey(), nameToValue.getValue());
+                }
+            }
+            return;
+        }
+
+        labels = this.localizationAdapter.getLabels(uncachedLabels);
 
         for (Map.Entry<String, Map<String, String>> entry : labels.entrySet()) {
             String section = entry.getKey();
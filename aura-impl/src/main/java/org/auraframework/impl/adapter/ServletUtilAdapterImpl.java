@@ -75,10 +75,12 @@ import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.json.JsonEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.google.common.base.Charsets;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 
 @ServiceComponent
 public class ServletUtilAdapterImpl implements ServletUtilAdapter {
@@ -810,6 +812,26 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
         response.setDateHeader(HttpHeaders.LAST_MODIFIED, now - SHORT_EXPIRE);
     }
 
+    /**
+     * Get a weak entity tag for a response determined by its URL.
+     *
+     * Resource URLs carry the UIDs of what they load, so a hash of the URL changes with the content. The framework UID,
+     * mode, client and requested locales are added in, as they change the output without always being in the URL (the
+     * locales come from Accept-Language when there is no _l10n parameter). The tag is weak as the same content may be
+     * sent with or without compression.
+     */
+    @Override
+    public String getResourceETag(HttpServletRequest request, AuraContext context) {
+        StringBuilder key = new StringBuilder(256);
+        key.append(request.getRequestURI()).append('?').append(request.getQueryString());
+        key.append('|').append(configAdapter.getAuraFrameworkNonce());
+        key.append('|').append(context.getMode());
+        key.append('|').append(context.getClient() != null ? context.getClient().getType() : null);
+        key.append('|').append(context.forceCompat());
+        key.append('|').append(context.getRequestedLocales());
+        return "W/\"" + Hashing.sha256().hashString(key, Charsets.UTF_8).toString() + "\"";
+    }
+
     @Override
     public String getContentType(AuraContext.Format format) {
         switch (format) {
@@ -862,8 +884,8 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
      * Finally, if there is no descriptor given, we simply ignore the request and give them an empty response. Which is
      * done here by returning null.
      *
-     * Also note that this handles the 'if-modified-since' header, as we want to tell the browser that nothing changed
-     * in that case.
+     * Also note that this handles the 'if-modified-since' and 'if-none-match' headers, as we want to tell the browser
+     * that nothing changed in that case. The entity tag is set along with the long cache headers.
      *
      * @param request the request (for exception handling)
      * @param response the response (for exception handling)
@@ -887,9 +909,18 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
         }
         long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
         String uid = context.getUid(appDesc);
+        String etag = null;
         try {
             try {
                 definitionService.updateLoaded(appDesc);
+                //
+                // The UID in the URL is only known to be current once updateLoaded has checked it, after that a
+                // matching tag means the client already has exactly what we would send.
+                //
+                etag = uid != null ? getResourceETag(request, context) : null;
+                if (checkNotModified(request, response, etag)) {
+                    return null;
+                }
                 if (uid != null && ifModifiedSince != -1) {
                     //
                     // In this case, we have an unmodified descriptor, so just tell
@@ -924,6 +955,9 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
             return null;
         }
         this.setLongCache(response);
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
         if (uid == null) {
             uid = context.getUid(appDesc);
         }
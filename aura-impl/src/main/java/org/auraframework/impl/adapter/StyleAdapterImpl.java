@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Set;
 
 import javax.inject.Inject;
+import org.apache.commons.lang3.StringUtils;
 
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExpressionBuilder;
@@ -120,6 +121,18 @@ public class StyleAdapterImpl implements StyleAdapter {
         return plugins;
     }
 
+    @Override
+    public boolean canRenderWithoutContextualPlugins(BaseStyleDef def, List<Plugin> contextualPlugins) {
+        // the duplicate font face check only needs the stylesheets that declare font faces.
+        for (Plugin plugin : contextualPlugins) {
+            if (!(plugin instanceof DuplicateFontFacePlugin)) {
+                return false;
+            }
+        }
+        String code = def.getRawCode();
+        return code != null && !StringUtils.containsIgnoreCase(code, "@font-face");
+    }
+
     @Override
     public Set<String> getExtraAllowedConditions() {
         return ImmutableSet.<String>of();
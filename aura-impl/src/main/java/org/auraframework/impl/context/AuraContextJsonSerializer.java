@@ -21,6 +21,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.def.ApplicationDef;
@@ -42,6 +44,9 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
 import org.auraframework.util.json.JsonSerializers.NoneSerializer;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
@@ -67,6 +72,38 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
             DefType.LIBRARY,
             DefType.MODULE);
 
+    /**
+     * The parts of the output that only depend on the application, keyed by the framework UID, the mode, the
+     * application and its UID.
+     *
+     * The UID changes whenever the application or anything it depends on changes, so entries never go stale.
+     */
+    private final Cache<String, AppPart> appParts = CacheBuilder.newBuilder().maximumSize(1024).build();
+
+    /**
+     * The parts of the context that are fixed for a given application UID.
+     */
+    private static final class AppPart {
+        /** the encoded app or cmp entry, by indent */
+        private final ConcurrentMap<String, String> nameEntries = new ConcurrentHashMap<>();
+
+        /** the encoded services entry, by indent, empty when there are no services */
+        private final ConcurrentMap<String, String> serviceEntries = new ConcurrentHashMap<>();
+
+        /** true if the application turns off uri addressable definitions, null until needed */
+        private volatile Boolean uriDefinitionsDisabled;
+
+        /** the tracked dependencies, null until needed */
+        private volatile Set<DefDescriptor<?>> trackedDependencies;
+    }
+
+    /**
+     * Writes part of the context.
+     */
+    private interface FragmentWriter {
+        void write(Json json) throws IOException, QuickFixException;
+    }
+
     public AuraContextJsonSerializer(ConfigAdapter configAdapter, TestContextAdapter testContextAdapter,
             DefinitionService definitionService) {
         this.configAdapter = configAdapter;
@@ -74,6 +111,76 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
         this.definitionService = definitionService;
     }
 
+    /**
+     * Get the cached parts for an application.
+     *
+     * The key uses the UID computed on the server, never the one the client sent in the context, so a client can
+     * not pick the entry it is served from.
+     *
+     * @return the parts, never null. When the application has no UID, because it does not compile, the parts are
+     *         not cached.
+     */
+    private AppPart getAppPart(AuraContext ctx, String fwuid, DefDescriptor<? extends BaseComponentDef> appDesc) {
+        String uid;
+        try {
+            uid = definitionService.getUid(null, appDesc);
+        } catch (QuickFixException qfe) {
+            uid = null;
+        }
+        if (uid == null) {
+            return new AppPart();
+        }
+        String key = fwuid + "|" + ctx.getMode() + "|" + appDesc.getQualifiedName() + "|" + uid;
+        AppPart part = appParts.getIfPresent(key);
+        if (part == null) {
+            part = new AppPart();
+            appParts.put(key, part);
+        }
+        return part;
+    }
+
+    /**
+     * Append the encoded fragment kept for the current indent, or write it and keep what was written.
+     *
+     * A fragment includes the comma in front of it, so it must always be written after the same entries. Nothing
+     * is kept if the writer fails.
+     */
+    private static void writeFragment(Json json, ConcurrentMap<String, String> fragments, FragmentWriter writer)
+            throws IOException, QuickFixException {
+        String indent = json.getSerializationContext().format() ? json.getIndent() : "";
+        String fragment = fragments.get(indent);
+        if (fragment != null) {
+            json.writeLiteral(fragment);
+            return;
+        }
+        boolean written = false;
+        json.startCapturing();
+        try {
+            writer.write(json);
+            written = true;
+        } finally {
+            String captured = json.stopCapturing();
+            if (written && captured != null) {
+                fragments.put(indent, captured);
+            }
+        }
+    }
+
+    private boolean isUriDefinitionsDisabled(AppPart part, DefDescriptor<? extends BaseComponentDef> appDesc) {
+        Boolean disabled = part.uriDefinitionsDisabled;
+        if (disabled == null) {
+            try {
+                disabled = definitionService.hasInterface(appDesc,
+                        definitionService.getDefDescriptor("aura:uriDefinitionsDisabled", InterfaceDef.class));
+                part.uriDefinitionsDisabled = disabled;
+            } catch (QuickFixException qfe) {
+                // ignore, and try again next time.
+                return false;
+            }
+        }
+        return disabled;
+    }
+
     private void writeDefs(Json json, String name, List<Definition> writable) throws IOException {
         if (writable.size() > 0) {
             json.writeMapEntry(name, writable);
@@ -105,22 +212,20 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
         boolean isApplication = false;
 
         DefDescriptor<? extends BaseComponentDef> appDesc = ctx.getApplicationDescriptor();
+        AppPart appPart = null;
         if (appDesc != null) {
-            if (appDesc.getDefType().equals(DefType.APPLICATION)) {
-                json.writeMapEntry("app", String.format("%s:%s", appDesc.getNamespace(), appDesc.getName()));
-                isApplication = true;
-            } else {
-                json.writeMapEntry("cmp", String.format("%s:%s", appDesc.getNamespace(), appDesc.getName()));
+            appPart = getAppPart(ctx, fwuid, appDesc);
+            isApplication = appDesc.getDefType().equals(DefType.APPLICATION);
+            String nameKey = isApplication ? "app" : "cmp";
+            try {
+                writeFragment(json, appPart.nameEntries, j -> j.writeMapEntry(nameKey,
+                        String.format("%s:%s", appDesc.getNamespace(), appDesc.getName())));
+            } catch (QuickFixException qfe) {
+                // not thrown by this writer.
             }
 
-            if (uriEnabled) {
-                try {
-                    if (definitionService.hasInterface(appDesc, definitionService.getDefDescriptor("aura:uriDefinitionsDisabled", InterfaceDef.class))) {
-                        uriEnabled = false;
-                    }
-                } catch (QuickFixException qfe) {
-                    // ignore
-                }
+            if (uriEnabled && isUriDefinitionsDisabled(appPart, appDesc)) {
+                uriEnabled = false;
             }
         }
 
@@ -242,7 +347,7 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
         }
 
         try {
-            addTrackedDefs(appDesc, defMap);
+            addTrackedDefs(appDesc, appPart, defMap);
         } catch (QuickFixException e) {
             // If we fail, we have nothing to do.
         }
@@ -260,8 +365,8 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
             if (!uriEnabled || appDesc.equals(entry.getKey())) {
                 // uri defs disabled or
                 // if uri defs enabled we want to send the application in loaded still
-                loadedStrings.put(String.format("%s@%s", entry.getKey().getDefType().toString(),
-                        entry.getKey().getQualifiedName()), entry.getValue());
+                loadedStrings.put(entry.getKey().getDefType().toString() + "@"
+                        + entry.getKey().getQualifiedName(), entry.getValue());
             }
             currentLoaded.remove(entry.getKey());
 
@@ -269,8 +374,7 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
 
         // Step 3: serialize remaining not found client definitions, now unused.
         for (DefDescriptor<?> deleted : currentLoaded) {
-            loadedStrings.put(String.format("%s@%s", deleted.getDefType().toString(),
-                    deleted.getQualifiedName()), DELETED);
+            loadedStrings.put(deleted.getDefType().toString() + "@" + deleted.getQualifiedName(), DELETED);
         }
         if (loadedStrings.size() > 0) {
             json.writeMapKey("loaded");
@@ -344,7 +448,7 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
 
         if (isApplication) {
             try {
-                injectModuleServices(json, (DefDescriptor<ApplicationDef>) appDesc);
+                injectModuleServices(json, (DefDescriptor<ApplicationDef>) appDesc, appPart);
             } catch (QuickFixException e) {}
         }
 
@@ -352,24 +456,36 @@ public class AuraContextJsonSerializer extends NoneSerializer<AuraContext> {
 
     }
 
-    private void injectModuleServices (Json json, DefDescriptor<ApplicationDef> appDesc) throws QuickFixException, IOException {
-        ApplicationDef appDef = definitionService.getDefinition(appDesc);
-        Set<DefDescriptor<ModuleDef>> services = appDef.getModuleServices();
-        if (services != null && !services.isEmpty()) {
-            json.writeMapEntry("services", services);
-        }
+    private void injectModuleServices (Json json, DefDescriptor<ApplicationDef> appDesc, AppPart appPart)
+            throws QuickFixException, IOException {
+        writeFragment(json, appPart.serviceEntries, j -> {
+            ApplicationDef appDef = definitionService.getDefinition(appDesc);
+            Set<DefDescriptor<ModuleDef>> services = appDef.getModuleServices();
+            if (services != null && !services.isEmpty()) {
+                List<String> names = Lists.newArrayListWithCapacity(services.size());
+                for (DefDescriptor<ModuleDef> service : services) {
+                    names.add(service.getQualifiedName());
+                }
+                j.writeMapEntry("services", names);
+            }
+        });
     }
 
-    private void addTrackedDefs(DefDescriptor<? extends BaseComponentDef> appDesc, 
+    private void addTrackedDefs(DefDescriptor<? extends BaseComponentDef> appDesc, AppPart appPart,
             Map<DefDescriptor<? extends Definition>, Definition> defMap) throws QuickFixException {
 
         if (appDesc == null || defMap == null || defMap.isEmpty()) {
             return;
         }
 
-        BaseComponentDef appDef = definitionService.getDefinition(appDesc);
-        List<DefDescriptor<ComponentDef>> trackedDefs = appDef.getTrackedDependencies();
-        if (trackedDefs == null || trackedDefs.isEmpty()) {
+        Set<DefDescriptor<?>> trackedDefs = appPart.trackedDependencies;
+        if (trackedDefs == null) {
+            BaseComponentDef appDef = definitionService.getDefinition(appDesc);
+            List<DefDescriptor<ComponentDef>> tracked = appDef.getTrackedDependencies();
+            trackedDefs = tracked != null ? ImmutableSet.copyOf(tracked) : ImmutableSet.of();
+            appPart.trackedDependencies = trackedDefs;
+        }
+        if (trackedDefs.isEmpty()) {
             return;
         }
 
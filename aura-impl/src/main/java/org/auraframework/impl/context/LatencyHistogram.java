@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.context;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.CheckForNull;
+
+import org.auraframework.def.DefDescriptor;
+
+/**
+ * Process wide latency histogram for a timer or an action.
+ *
+ * Durations go into power of two buckets of microseconds, so recording is a few adds and percentiles are
+ * approximate, reported as the upper bound of their bucket. The histograms are kept for the life of the process,
+ * at most <code>aura.logging.maxHistograms</code> of each kind, and can be read with {@link #getTimerHistograms()}
+ * and {@link #getActionHistograms()} or written out with {@link #dump(Appendable)}.
+ */
+public class LatencyHistogram {
+    /** Bucket i holds durations below 2^i microseconds, the last one holds everything else */
+    private static final int BUCKETS = 40;
+
+    /** Default number of histograms of each kind */
+    private static final int DEFAULT_MAX_HISTOGRAMS = 4096;
+
+    private static final int MAX_HISTOGRAMS = getMaxHistograms();
+
+    private static final ConcurrentMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    private static final ConcurrentMap<DefDescriptor<?>, LatencyHistogram> actions = new ConcurrentHashMap<>();
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Get the histogram for a timer, creating it on first use.
+     *
+     * @return the histogram, or null if there are already too many.
+     */
+    @CheckForNull
+    public static LatencyHistogram forTimer(String name) {
+        return get(timers, name);
+    }
+
+    /**
+     * Get the histogram for an action, creating it on first use.
+     *
+     * @return the histogram, or null if there are already too many.
+     */
+    @CheckForNull
+    public static LatencyHistogram forAction(DefDescriptor<?> descriptor) {
+        return get(actions, descriptor);
+    }
+
+    private static <K> LatencyHistogram get(ConcurrentMap<K, LatencyHistogram> histograms, K key) {
+        if (key == null) {
+            return null;
+        }
+        LatencyHistogram histogram = histograms.get(key);
+        if (histogram == null) {
+            if (histograms.size() >= MAX_HISTOGRAMS) {
+                return null;
+            }
+            histogram = histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+
+    public static Map<String, LatencyHistogram> getTimerHistograms() {
+        return Collections.unmodifiableMap(timers);
+    }
+
+    public static Map<DefDescriptor<?>, LatencyHistogram> getActionHistograms() {
+        return Collections.unmodifiableMap(actions);
+    }
+
+    /**
+     * Write one line per histogram, timers first and then actions.
+     */
+    public static void dump(Appendable out) throws IOException {
+        for (Map.Entry<String, LatencyHistogram> entry : timers.entrySet()) {
+            out.append("timer ").append(entry.getKey()).append(": ").append(entry.getValue().toString())
+                    .append('\n');
+        }
+        for (Map.Entry<DefDescriptor<?>, LatencyHistogram> entry : actions.entrySet()) {
+            out.append("action ").append(entry.getKey().getQualifiedName()).append(": ")
+                    .append(entry.getValue().toString()).append('\n');
+        }
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos the duration in nanoseconds, negative values are ignored.
+     */
+    public void record(long nanos) {
+        if (nanos < 0L) {
+            return;
+        }
+        long micros = nanos / 1000L;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        buckets[bucket < BUCKETS ? bucket : BUCKETS - 1].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the mean duration in microseconds, or 0 if nothing was recorded.
+     */
+    public long getMeanMicros() {
+        long n = count.sum();
+        return n > 0 ? totalNanos.sum() / n / 1000L : 0L;
+    }
+
+    public long getMaxMicros() {
+        return maxNanos.get() / 1000L;
+    }
+
+    /**
+     * Get an approximate percentile.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the upper bound of the bucket holding the percentile in microseconds, or 0 if nothing was recorded.
+     */
+    public long getPercentileMicros(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0L) {
+                return Math.min(1L << i, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d, mean=%dus, p50=%dus, p90=%dus, p99=%dus, max=%dus", getCount(),
+                getMeanMicros(), getPercentileMicros(50), getPercentileMicros(90), getPercentileMicros(99),
+                getMaxMicros());
+    }
+
+    private static int getMaxHistograms() {
+        String prop = System.getProperty("aura.logging.maxHistograms");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return DEFAULT_MAX_HISTOGRAMS;
+    }
+}
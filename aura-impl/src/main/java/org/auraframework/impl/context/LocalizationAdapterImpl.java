@@ -25,6 +25,7 @@ import javax.inject.Inject;
 
 import org.auraframework.adapter.LocalizationAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.impl.adapter.LabelCache;
 import org.auraframework.impl.util.AuraLocaleImpl;
 import org.auraframework.service.ContextService;
 import org.auraframework.system.AuraContext;
@@ -39,6 +40,9 @@ public class LocalizationAdapterImpl implements LocalizationAdapter, TestableLoc
     @Inject
     private ContextService contextService;
 
+    @Inject
+    private LabelCache labelCache;
+
     /**
      * Temporary workaround for localized labels
      */
@@ -153,6 +157,7 @@ public class LocalizationAdapterImpl implements LocalizationAdapter, TestableLoc
     @Override
     public void setTestLabel(String section, String name, String value) {
         testLabels.put(getTestLabelKey(section, name), value);
+        invalidateCachedLabels(section);
     }
 
     @Override
@@ -162,7 +167,18 @@ public class LocalizationAdapterImpl implements LocalizationAdapter, TestableLoc
 
     @Override
     public String removeTestLabel(String section, String name) {
-        return testLabels.remove(getTestLabelKey(section, name));
+        String removed = testLabels.remove(getTestLabelKey(section, name));
+        invalidateCachedLabels(section);
+        return removed;
+    }
+
+    /**
+     * Test labels change underneath the shared label cache, so drop what it has for the section.
+     */
+    private void invalidateCachedLabels(String section) {
+        if (labelCache != null) {
+            labelCache.invalidateSection(section);
+        }
     }
 
     private String getTestLabelKey(String section, String name) {
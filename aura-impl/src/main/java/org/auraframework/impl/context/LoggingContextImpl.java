@@ -18,6 +18,7 @@ package org.auraframework.impl.context;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 
@@ -30,6 +31,7 @@ import org.auraframework.util.json.Json;
 
 import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 
 /**
@@ -40,8 +42,18 @@ public class LoggingContextImpl implements LoggingContext {
 
     protected static final Logger logger = Logger.getLogger("LoggingContextImpl");
 
+    /**
+     * Timers that span the request but are stopped and restarted around user code, so a single stop is only a
+     * fragment. Their histograms get the request total once, when the request values are logged.
+     */
+    private static final Set<String> REQUEST_TIMERS = ImmutableSet.of(LoggingService.TIMER_AURA,
+            LoggingService.TIMER_TOTAL, LoggingService.TIMER_AURA_RUN, LoggingService.TIMER_SERIALIZATION,
+            LoggingService.TIMER_SERIALIZATION_AURA);
+
     private final Map<String, Object> loggingValues = Maps.newHashMap();
     private final Map<String, Timer> timers = Maps.newHashMap();
+    // action timers by action name, logged with LoggingService.TIMER_ACTION in front
+    private final Map<String, Timer> actionTimers = Maps.newHashMap();
     private final Map<String, Counter> counters = Maps.newHashMap();
     private final Map<String, Object> values = Maps.newHashMap();
 
@@ -65,7 +77,13 @@ public class LoggingContextImpl implements LoggingContext {
     protected void startActionTimer(String actionName, Action action) {
         String actionId = (action == null || action.getId() == null)? "none" : action.getId();
 
-        startTimer(LoggingService.TIMER_ACTION + actionName, ImmutableMap.of("id", actionId));
+        Timer t = actionTimers.get(actionName);
+        if (t == null) {
+            t = new Timer(actionName, action != null ? LatencyHistogram.forAction(action.getDescriptor()) : null);
+            actionTimers.put(actionName, t);
+        }
+        t.start();
+        t.setContext(ImmutableMap.of("id", actionId));
     }
 
     protected Map<String, Map<String, Long>> getActionStats() {
@@ -77,7 +95,7 @@ public class LoggingContextImpl implements LoggingContext {
         stopActionTimer(actionName);
         Map<String, Long> actionStatsMap = actionStats.get(actionName);
         if (actionStatsMap != null) {
-            Timer actionTimer = timers.get(LoggingService.TIMER_ACTION + actionName);
+            Timer actionTimer = actionTimers.get(actionName);
             if (actionTimer != null) {
                 actionStatsMap.put(LoggingService.TIMER_ACTION, actionTimer.getTime());
             }
@@ -97,7 +115,10 @@ public class LoggingContextImpl implements LoggingContext {
     }
 
     protected void stopActionTimer(String actionName) {
-        stopTimer(LoggingService.TIMER_ACTION + actionName);
+        Timer t = actionTimers.get(actionName);
+        if (t != null) {
+            t.stop();
+        }
     }
 
     @Override
@@ -108,7 +129,7 @@ public class LoggingContextImpl implements LoggingContext {
     private Timer startTimerInternal(String name) {
         Timer t = timers.get(name);
         if (t == null) {
-            t = new Timer(name);
+            t = new Timer(name, REQUEST_TIMERS.contains(name) ? null : LatencyHistogram.forTimer(name));
             timers.put(name, t);
         }
         t.start();
@@ -123,7 +144,7 @@ public class LoggingContextImpl implements LoggingContext {
 
     @Override
     public void stopTimer(String name) {
-        Timer t = timers.get(name);
+        Timer t = getTimer(name);
         if (t != null) {
             t.stop();
         }
@@ -131,7 +152,7 @@ public class LoggingContextImpl implements LoggingContext {
 
     @Override
     public long getTime(String name) {
-        Timer t = timers.get(name);
+        Timer t = getTimer(name);
         if (t != null) {
             return t.getTime();
         }
@@ -140,12 +161,24 @@ public class LoggingContextImpl implements LoggingContext {
 
     @Override
     public void resetTimer(String name) {
-        Timer t = timers.get(name);
+        Timer t = getTimer(name);
         if (t != null) {
             t.reset();
         }
     }
 
+    /**
+     * Find a timer by the name it is logged under, including action timers with LoggingService.TIMER_ACTION in
+     * front.
+     */
+    private Timer getTimer(String name) {
+        Timer t = timers.get(name);
+        if (t == null && name != null && name.startsWith(LoggingService.TIMER_ACTION)) {
+            t = actionTimers.get(name.substring(LoggingService.TIMER_ACTION.length()));
+        }
+        return t;
+    }
+
     @Override
     public long getNum(String key) {
         Counter result = counters.get(key);
@@ -197,6 +230,12 @@ public class LoggingContextImpl implements LoggingContext {
     public void logRequestValues() {
         for (Map.Entry<String, Timer> entry : timers.entrySet()) {
             loggingValues.put(entry.getKey(), entry.getValue().getTime());
+            if (REQUEST_TIMERS.contains(entry.getKey())) {
+                recordRequestTimer(entry.getKey(), entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Timer> entry : actionTimers.entrySet()) {
+            loggingValues.put(LoggingService.TIMER_ACTION + entry.getKey(), entry.getValue().getTime());
         }
         for (Map.Entry<String, Counter> entry : counters.entrySet()) {
             loggingValues.put(entry.getKey(), entry.getValue().get());
@@ -206,11 +245,24 @@ public class LoggingContextImpl implements LoggingContext {
         logActions(loggingValues);
     }
 
+    private void recordRequestTimer(String name, Timer timer) {
+        long nanos = timer.getTotalNanos();
+        if (nanos > 0L) {
+            LatencyHistogram histogram = LatencyHistogram.forTimer(name);
+            if (histogram != null) {
+                histogram.record(nanos);
+            }
+        }
+    }
+
     protected Map<String, Object> getRequestValues () {
         Map<String, Object> requestLoggingValues = Maps.newHashMap();
         for (Map.Entry<String, Timer> entry : timers.entrySet()) {
             requestLoggingValues.put(entry.getKey(), entry.getValue().getTime());
         }
+        for (Map.Entry<String, Timer> entry : actionTimers.entrySet()) {
+            requestLoggingValues.put(LoggingService.TIMER_ACTION + entry.getKey(), entry.getValue().getTime());
+        }
         for (Map.Entry<String, Counter> entry : counters.entrySet()) {
             requestLoggingValues.put(entry.getKey(), entry.getValue().get());
         }
@@ -305,6 +357,7 @@ public class LoggingContextImpl implements LoggingContext {
      * of stop calls equals the number of previous start calls.
      * The timer is restartable.  Addition start/stop calls will add to the previous
      * total time unless restart is called in between.
+     * Each outermost start/stop is also recorded in the process wide histogram, if any.
      *
      */
     public static class Timer {
@@ -316,9 +369,15 @@ public class LoggingContextImpl implements LoggingContext {
         private int startCount = 0;
         private Map<String, Long> marks = Maps.newHashMap();
         private Map<String, String> context = null;
+        private final LatencyHistogram histogram;
 
         public Timer(String name) {
+            this(name, null);
+        }
+
+        public Timer(String name, LatencyHistogram histogram) {
             this.name = name;
+            this.histogram = histogram;
         }
 
         public void setContext(Map<String, String> context) {
@@ -345,6 +404,9 @@ public class LoggingContextImpl implements LoggingContext {
             if (startCount == 0L && startTime >= 0L) {
                 long curr = System.nanoTime();
                 totalTime = ((totalTime > 0L) ? totalTime : 0L)  + curr - startTime;
+                if (histogram != null) {
+                    histogram.record(curr - startTime);
+                }
                 startTime = -1;
             }
         }
@@ -377,6 +439,13 @@ public class LoggingContextImpl implements LoggingContext {
             return (totalTime > 0L) ? (totalTime / 1000000L) : totalTime; //convert to ms for public consumption
         }
 
+        /**
+         * @return The accumulated duration of the finished starts in ns, or -1 if there are none.
+         */
+        long getTotalNanos() {
+            return totalTime;
+        }
+
         /**
          * Reset the accumulated total time.  If the timer was
          * started it is now stopped and the accumulated time is discarded.
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.CheckForNull;
+import javax.inject.Inject;
+
+import org.auraframework.adapter.LoggingAdapter;
+import org.auraframework.adapter.StyleAdapter;
+import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.cache.Cache;
+import org.auraframework.css.StyleContext;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.BaseStyleDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.TokensDef;
+import org.auraframework.impl.cache.CacheImpl;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Authentication;
+import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.RegistrySet;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.base.Optional;
+
+/**
+ * Process wide cache of the runtime CSS for single style definitions.
+ *
+ * app.css is cached as a whole per application and style context, so a new browser or token variant used to
+ * re-run every stylesheet of the application through the parser. This keeps the output of each stylesheet, keyed by
+ * the definition and everything in the style context that can change its output, so a new variant (or another
+ * application using the same components) is mostly assembled from cached pieces.
+ *
+ * Token values are only part of the key for stylesheets that use tokens. For those the key includes both the tokens
+ * UID of the style context and the UID of the namespace default tokens, so that a change to either gives a new key.
+ */
+@ServiceComponent
+public class StyleCodeCache {
+    /** Default size of the style code cache, in number of stylesheets */
+    private final static int STYLE_CODE_CACHE_SIZE = 16 * 1024;
+
+    private final Cache<String, String> cache;
+
+    @Inject
+    private ContextService contextService;
+
+    @Inject
+    private DefinitionService definitionService;
+
+    @Inject
+    private StyleAdapter styleAdapter;
+
+    private volatile ExecutorService pool;
+
+    @Inject
+    public StyleCodeCache(LoggingAdapter loggingAdapter) {
+        this.cache = new CacheImpl.Builder<String, String>()
+                .setInitialSize(1024)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(getCacheSize())
+                .setRecordStats(true)
+                .setName("styleCodeCache")
+                .setSoftValues(true).build();
+    }
+
+    /**
+     * Get the cache key for a stylesheet.
+     *
+     * Callers must only cache stylesheets that {@link StyleAdapter#canRenderWithoutContextualPlugins} allows, and
+     * render them without the contextual plugins.
+     *
+     * @param def the stylesheet.
+     * @param styleContext the style context it will be rendered in.
+     * @param prettyPrint whether the output is pretty printed.
+     * @param cssVarOutput whether css variables are written.
+     * @return the key, or null if the stylesheet should not be cached.
+     */
+    @CheckForNull
+    public String getKey(BaseStyleDef def, StyleContext styleContext, boolean prettyPrint, boolean cssVarOutput)
+            throws QuickFixException {
+        String ownHash = def.getOwnHash();
+        String content = def.getRawCode();
+        if (ownHash == null || content == null) {
+            return null;
+        }
+        DefDescriptor<?> descriptor = def.getDescriptor();
+
+        StringBuilder key = new StringBuilder(128);
+        key.append(descriptor.getQualifiedName()).append('|').append(descriptor.getDefType());
+        key.append('|').append(ownHash);
+        key.append('|').append(prettyPrint ? "PRETTY" : "MIN");
+        key.append('|').append(cssVarOutput);
+        if (styleContext != null) {
+            key.append('|').append(styleContext.getClientType());
+            Set<String> conditions = new TreeSet<>(styleContext.getExtraTrueConditionsOnly());
+            for (String condition : conditions) {
+                key.append(',').append(condition);
+            }
+        }
+        if (!def.getExpressions().isEmpty()) {
+            if (styleContext != null && styleContext.getTokens() != null) {
+                Optional<String> tokensUid = styleContext.getTokens().getTokensUid();
+                if (tokensUid.isPresent()) {
+                    key.append("|T:").append(tokensUid.get());
+                }
+            }
+            key.append("|N:").append(getNamespaceTokensUid(descriptor));
+        }
+        return key.toString();
+    }
+
+    private String getNamespaceTokensUid(DefDescriptor<?> descriptor) {
+        DefDescriptor<TokensDef> tokens = styleAdapter.getNamespaceDefaultDescriptor(descriptor);
+        try {
+            String uid = definitionService.getUid(null, tokens);
+            return uid != null ? uid : "";
+        } catch (QuickFixException qfe) {
+            // no namespace tokens, the stylesheet will report any problem when it is rendered.
+            return "";
+        }
+    }
+
+    @CheckForNull
+    public String get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, String code) {
+        cache.put(key, code);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get an executor for rendering stylesheets in parallel.
+     *
+     * Tasks run on a shared pool, sized by the <code>aura.css.runtimeThreads</code> system property, in a basic
+     * context copied from the given one, including its style context. A size of zero turns this off.
+     *
+     * @param context the context of the calling thread.
+     * @return the executor, or null if rendering in parallel is off.
+     */
+    @CheckForNull
+    public Executor getExecutor(AuraContext context) {
+        ExecutorService executor = getPool();
+        if (executor == null || contextService == null) {
+            return null;
+        }
+        // read everything here, a context is not safe to share with the pool threads.
+        Mode mode = context.getMode();
+        Format format = context.getFormat();
+        Authentication access = context.getAccess();
+        RegistrySet registries = context.getRegistries();
+        DefDescriptor<? extends BaseComponentDef> appDesc = context.getApplicationDescriptor();
+        StyleContext styleContext = context.getStyleContext();
+        return task -> executor.execute(() -> {
+            boolean started = false;
+            try {
+                AuraContext workerContext = contextService.startBasicContext(mode, format, access, registries);
+                started = true;
+                workerContext.setApplicationDescriptor(appDesc);
+                workerContext.setStyleContext(styleContext);
+            } catch (Throwable t) {
+                // render without a full context, any problem shows up in the output of the task.
+            }
+            try {
+                task.run();
+            } finally {
+                if (started) {
+                    contextService.endContext();
+                }
+            }
+        });
+    }
+
+    @CheckForNull
+    private ExecutorService getPool() {
+        if (pool == null) {
+            int threads = getThreads();
+            if (threads <= 0) {
+                return null;
+            }
+            synchronized (this) {
+                if (pool == null) {
+                    AtomicInteger count = new AtomicInteger();
+                    pool = Executors.newFixedThreadPool(threads, r -> {
+                        Thread thread = new Thread(r, "styleCode." + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static int getThreads() {
+        int threads = Math.min(4, Runtime.getRuntime().availableProcessors() - 1);
+        String prop = System.getProperty("aura.css.runtimeThreads");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                threads = Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return threads;
+    }
+
+    private static int getCacheSize() {
+        String prop = System.getProperty("aura.cache.styleCodeCacheSize");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return STYLE_CODE_CACHE_SIZE;
+    }
+}
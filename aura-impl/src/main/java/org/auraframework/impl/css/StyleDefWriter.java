@@ -20,6 +20,7 @@ import com.salesforce.omakase.plugin.Plugin;
 
 import org.auraframework.adapter.StyleAdapter;
 import org.auraframework.css.FlavorOverrideLocator;
+import org.auraframework.css.StyleContext;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.BaseStyleDef;
@@ -35,17 +36,34 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 
 public class StyleDefWriter {
     private final DefinitionService definitionService;
     private final StyleAdapter styleAdapter;
     private final AuraContext context;
+    private final StyleCodeCache codeCache;
+    private final boolean cssVarOutput;
 
     public StyleDefWriter(DefinitionService definitionService, StyleAdapter styleAdapter, AuraContext context) {
+        this(definitionService, styleAdapter, context, null, false);
+    }
+
+    /**
+     * @param codeCache cache of the output of single stylesheets, or null to render every stylesheet.
+     * @param cssVarOutput whether css variables are being written, part of the cache key.
+     */
+    public StyleDefWriter(DefinitionService definitionService, StyleAdapter styleAdapter, AuraContext context,
+            StyleCodeCache codeCache, boolean cssVarOutput) {
         this.definitionService = definitionService;
         this.styleAdapter = styleAdapter;
         this.context = context;
+        this.codeCache = codeCache;
+        this.cssVarOutput = cssVarOutput;
     }
 
     public void writeStyleDefs(Collection<? extends BaseStyleDef> values, Appendable out)
@@ -58,23 +76,115 @@ public class StyleDefWriter {
         // the flavor mapping contains information on flavor CSS app overrides
         FlavorOverrideLocator overrides = getFlavorOverrides();
 
-        for (BaseStyleDef def : values) {
-            if (def != null) {
-                if (overrides != null && def instanceof FlavoredStyleDef) {
-                    // TODONM fixthis
-                    // for flavor css, enable the flavor mapping plugin which removes CSS based on flavor overrides
-                    DefDescriptor<FlavoredStyleDef> desc = ((FlavoredStyleDef) def).getDescriptor();
-
-                    // the only reason to add this plugin here is because it requires the overrides map and there's no
-                    // need to create that more than once for each def.
-                    FlavorOverridePlugin overrideEnforcer = new FlavorOverridePlugin(desc, overrides);
-                    List<Plugin> copy = ImmutableList.<Plugin>builder().addAll(contextualPlugins).add(overrideEnforcer).build();
-                    out.append(def.getCode(copy));
-                } else {
-                    out.append(def.getCode(contextualPlugins));
+        if (codeCache == null) {
+            for (BaseStyleDef def : values) {
+                if (def != null) {
+                    out.append(getCode(def, contextualPlugins, overrides));
+                }
+            }
+            return;
+        }
+
+        // Only stylesheets that the style adapter lets render without the contextual plugins are cached. Those whose
+        // output is in the code cache are not rendered again, and the other ones are rendered in parallel without
+        // the contextual plugins. Every other stylesheet is rendered here, in order, with the contextual plugins.
+        List<Plugin> noPlugins = ImmutableList.of();
+        StyleContext styleContext = context.getStyleContext();
+        boolean prettyPrint = context.getMode().prettyPrint();
+        BaseStyleDef[] defs = values.toArray(new BaseStyleDef[values.size()]);
+        String[] keys = new String[defs.length];
+        String[] codes = new String[defs.length];
+        @SuppressWarnings("unchecked")
+        CompletableFuture<String>[] pending = new CompletableFuture[defs.length];
+        Executor executor = null;
+        boolean executorChecked = false;
+
+        for (int i = 0; i < defs.length; i++) {
+            BaseStyleDef def = defs[i];
+            if (def == null || (overrides != null && def instanceof FlavoredStyleDef)
+                    || !styleAdapter.canRenderWithoutContextualPlugins(def, contextualPlugins)) {
+                continue;
+            }
+            keys[i] = codeCache.getKey(def, styleContext, prettyPrint, cssVarOutput);
+            if (keys[i] == null) {
+                continue;
+            }
+            codes[i] = codeCache.get(keys[i]);
+            if (codes[i] != null) {
+                continue;
+            }
+            if (!executorChecked) {
+                executor = codeCache.getExecutor(context);
+                executorChecked = true;
+            }
+            if (executor != null) {
+                try {
+                    pending[i] = CompletableFuture.supplyAsync(() -> def.getCode(noPlugins), executor);
+                } catch (RejectedExecutionException ree) {
+                    executor = null;
                 }
             }
         }
+
+        RuntimeException failure = null;
+        for (int i = 0; i < defs.length; i++) {
+            BaseStyleDef def = defs[i];
+            if (def == null) {
+                continue;
+            }
+            if (codes[i] == null) {
+                try {
+                    if (pending[i] != null) {
+                        codes[i] = join(pending[i]);
+                    } else if (keys[i] != null) {
+                        codes[i] = def.getCode(noPlugins);
+                    } else {
+                        codes[i] = getCode(def, contextualPlugins, overrides);
+                    }
+                } catch (RuntimeException e) {
+                    // wait for the rest, so no work is left running against this request.
+                    if (failure == null) {
+                        failure = e;
+                    }
+                    continue;
+                }
+                if (keys[i] != null) {
+                    codeCache.put(keys[i], codes[i]);
+                }
+            }
+            if (failure == null) {
+                out.append(codes[i]);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private String getCode(BaseStyleDef def, List<Plugin> contextualPlugins, FlavorOverrideLocator overrides) {
+        if (overrides != null && def instanceof FlavoredStyleDef) {
+            // TODONM fixthis
+            // for flavor css, enable the flavor mapping plugin which removes CSS based on flavor overrides
+            DefDescriptor<FlavoredStyleDef> desc = ((FlavoredStyleDef) def).getDescriptor();
+
+            // the only reason to add this plugin here is because it requires the overrides map and there's no
+            // need to create that more than once for each def.
+            FlavorOverridePlugin overrideEnforcer = new FlavorOverridePlugin(desc, overrides);
+            List<Plugin> copy = ImmutableList.<Plugin>builder().addAll(contextualPlugins).add(overrideEnforcer).build();
+            return def.getCode(copy);
+        }
+        return def.getCode(contextualPlugins);
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     private FlavorOverrideLocator getFlavorOverrides() throws QuickFixException {
@@ -253,8 +253,22 @@ public final class CssPreprocessor {
                 result.tokensInCssProperties = tokenPropertyValidationPlugin.get().tokensInCssProperties;
             }
 
+            if (!runtime) {
+                result.runtimeInvariant = (result.expressions == null || result.expressions.isEmpty())
+                        && !hasRuntimeDependentSyntax(result.content);
+            }
+
             return result;
         }
+
+        /**
+         * Whether the compiled css still has anything the runtime pass resolves differently per request, i.e.,
+         * conditionals (resolved against the style context) or urls (which may get cache busting params).
+         */
+        private static boolean hasRuntimeDependentSyntax(String css) {
+            String lower = css.toLowerCase();
+            return lower.contains("@if") || lower.contains("url(");
+        }
     }
 
     /** Result of calling {@link ParserConfiguration#parse()} */
@@ -263,6 +277,7 @@ public final class CssPreprocessor {
         private Set<String> expressions;
         private Map<String, FlavorAnnotation> flavorAnnotations;
         private Map<String, Set<String>> tokensInCssProperties;
+        private boolean runtimeInvariant;
 
         /** parsed content */
         public String content() {
@@ -282,5 +297,13 @@ public final class CssPreprocessor {
         public Map<String, Set<String>> tokensInCssProperties() {
             return tokensInCssProperties;
         }
+
+        /**
+         * Whether the runtime pass gives the same output for every style context, that is, the source has no tokens,
+         * conditionals or urls. Only set on the initial pass.
+         */
+        public boolean runtimeInvariant() {
+            return runtimeInvariant;
+        }
     }
 }
@@ -17,8 +17,10 @@ package org.auraframework.impl.css.style;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.auraframework.Aura;
 import org.auraframework.adapter.ExpressionBuilder;
@@ -33,10 +35,12 @@ import org.auraframework.expression.Expression;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.DefinitionAccessImpl;
 import org.auraframework.impl.css.parser.CssPreprocessor;
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
 import org.auraframework.impl.system.DefinitionImpl;
 import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.AuraValidationException;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -56,12 +60,21 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
     private final String content;
     private final Set<String> expressions;
     private final Map<String, Set<String>> tokensInCssProperties;
+    private final boolean runtimeInvariant;
+    private final boolean mayDeclareFontFace;
+
+    /** runtime output of a runtime invariant stylesheet, by mode, as the mode decides the output format */
+    private transient volatile Map<Mode, String> runtimeCode;
 
     protected AbstractStyleDef(final Builder<D> builder) {
         super(builder);
         this.content = builder.content;
         this.expressions = AuraUtil.immutableSet(builder.expressions);
         this.tokensInCssProperties = builder.tokensInCssProperties;
+        this.runtimeInvariant = builder.runtimeInvariant;
+        // escapes could spell the at-rule some other way, so assume the worst when there are any.
+        this.mayDeclareFontFace = content != null
+                && (content.indexOf('\\') >= 0 || content.toLowerCase(Locale.ROOT).contains("@font-face"));
     }
 
     @Override
@@ -69,10 +82,46 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         return getCode(ImmutableList.<Plugin>of());
     }
 
+    /**
+     * Stylesheets without tokens, conditionals or urls come out of the runtime pass the same way for every style
+     * context, so unless extra plugins are involved the output is parsed once per mode and then reused.
+     */
     @Override
     public String getCode(List<Plugin> plugins) {
-        StyleContext styleContext = Aura.getContextService().getCurrentContext().getStyleContext();
-        StyleAdapter styleAdapter = Aura.getStyleAdapter();        
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        StyleAdapter styleAdapter = Aura.getStyleAdapter();
+        if (runtimeInvariant && canSkip(plugins) && styleAdapter.getRuntimePlugins().isEmpty()) {
+            Map<Mode, String> codeByMode = runtimeCode;
+            if (codeByMode == null) {
+                codeByMode = new ConcurrentHashMap<>();
+                runtimeCode = codeByMode;
+            }
+            Mode mode = context.getMode();
+            String code = codeByMode.get(mode);
+            if (code == null) {
+                code = getRuntimeCode(context.getStyleContext(), styleAdapter, plugins);
+                codeByMode.put(mode, code);
+            }
+            return code;
+        }
+        return getRuntimeCode(context.getStyleContext(), styleAdapter, plugins);
+    }
+
+    /**
+     * Whether running these plugins over this stylesheet can be skipped. The only plugin known not to change the
+     * output is the {@link DuplicateFontFacePlugin} that app.css is always written with, and it only has something
+     * to check, across all the stylesheets it sees, when this one declares a font-face.
+     */
+    private boolean canSkip(List<Plugin> plugins) {
+        for (Plugin plugin : plugins) {
+            if (!(plugin instanceof DuplicateFontFacePlugin) || mayDeclareFontFace) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getRuntimeCode(StyleContext styleContext, StyleAdapter styleAdapter, List<Plugin> plugins) {
         TokenValueProvider tvp = styleAdapter.getTokenValueProvider(descriptor, ResolveStrategy.RESOLVE_NORMAL);
         
         try {
@@ -88,6 +137,13 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         }
     }
 
+    /**
+     * @return whether the runtime output of this stylesheet is the same for every style context.
+     */
+    public boolean isRuntimeInvariant() {
+        return runtimeInvariant;
+    }
+
     @Override
     public String getRawCode() {
         return content;
@@ -163,6 +219,7 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         private String content;
         private Set<String> expressions;
         private Map<String, Set<String>> tokensInCssProperties;
+        private boolean runtimeInvariant;
 
         public Builder(final Class<D> defClass) {
             super(defClass);
@@ -186,5 +243,15 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
             this.tokensInCssProperties = tokensInCssProperties;
             return this;
         }
+
+        /**
+         * Mark the content as giving the same runtime output for every style context.
+         *
+         * @see CssPreprocessor.ParserResult#runtimeInvariant()
+         */
+        public Builder<D> setRuntimeInvariant(boolean runtimeInvariant) {
+            this.runtimeInvariant = runtimeInvariant;
+            return this;
+        }
     }
 }
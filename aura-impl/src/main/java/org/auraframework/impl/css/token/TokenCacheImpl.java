@@ -17,6 +17,7 @@ package org.auraframework.impl.css.token;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -39,7 +40,10 @@ import org.auraframework.util.text.Hash;
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableTable;
@@ -48,11 +52,19 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 
 public final class TokenCacheImpl implements TokenCache {
+    /**
+     * Flattened name to value tables, shared by every token cache with the same tokens uid. The uid covers the token
+     * descriptors, their definitions and the dynamic token values, so equal uids mean equal tables.
+     */
+    private static final Cache<String, Map<String, Object>> TABLES = CacheBuilder.newBuilder().maximumSize(256).build();
+
     private final Multimap<DefDescriptor<TokensDef>, DefDescriptor<TokensDef>> originals;
     private final ImmutableList<DefDescriptor<TokensDef>> descriptors;
     private final ImmutableList<DefDescriptor<TokensDef>> reversed;
     private final ImmutableTable<String, DefDescriptor<TokensDef>, String> dynamicTokens;
     private final DefinitionService definitionService;
+    private volatile Optional<String> tokensUid;
+    private volatile Map<String, Object> table;
 
     public TokenCacheImpl(DefinitionService definitionService, Iterable<DefDescriptor<TokensDef>> descriptors)
             throws QuickFixException {
@@ -117,22 +129,45 @@ public final class TokenCacheImpl implements TokenCache {
 
     @Override
     public Optional<Object> getToken(String name) throws QuickFixException {
-        for (DefDescriptor<TokensDef> descriptor : reversed) { // reverse order; last one wins
-            TokensDef def = definitionService.getDefinition(descriptor);
+        return Optional.fromNullable(getTable().get(name));
+    }
 
-            Optional<Object> value = def.getToken(name);
-            if (value.isPresent()) {
-                return value;
-            }
-            if (def.getMapProvider() != null) {
-                value = Optional.<Object>fromNullable(dynamicTokens.get(name, descriptor));
-            }
-            if (value.isPresent()) {
-                return value;
+    /**
+     * Get the value of every token by name, built once for each tokens uid.
+     */
+    private Map<String, Object> getTable() throws QuickFixException {
+        Map<String, Object> current = table;
+        if (current == null) {
+            Optional<String> uid = getTokensUid();
+            if (uid.isPresent()) {
+                current = TABLES.getIfPresent(uid.get());
+                if (current == null) {
+                    current = buildTable();
+                    TABLES.put(uid.get(), current);
+                }
+            } else {
+                current = ImmutableMap.of();
             }
+            table = current;
         }
+        return current;
+    }
 
-        return Optional.absent();
+    private Map<String, Object> buildTable() throws QuickFixException {
+        Map<String, Object> values = new HashMap<>();
+        for (DefDescriptor<TokensDef> descriptor : descriptors) { // in order; last one wins
+            TokensDef def = definitionService.getDefinition(descriptor);
+
+            // a declared token wins over a dynamic one from the same def
+            values.putAll(dynamicTokens.column(descriptor));
+            for (String name : def.getAllNames()) {
+                Optional<Object> value = def.getToken(name);
+                if (value.isPresent()) {
+                    values.put(name, value.get());
+                }
+            }
+        }
+        return ImmutableMap.copyOf(values);
     }
 
     @Override
@@ -187,11 +222,20 @@ public final class TokenCacheImpl implements TokenCache {
 
     @Override
     public Optional<String> getTokensUid() throws QuickFixException {
+        Optional<String> uid = tokensUid;
+        if (uid == null) {
+            uid = computeTokensUid();
+            tokensUid = uid;
+        }
+        return uid;
+    }
+
+    private Optional<String> computeTokensUid() throws QuickFixException {
         if (descriptors.isEmpty() && dynamicTokens.isEmpty()) {
             return Optional.absent();
         }
 
-        Hash.StringBuilder builder = new Hash.StringBuilder();
+        Hash.StringBuilder builder = new Hash.StringBuilder(Hash.getUidAlgorithm());
         
         for (DefDescriptor<TokensDef> descriptor : descriptors) {
             builder.addString(descriptor.getQualifiedName());
@@ -77,6 +77,7 @@ public final class FlavoredStyleParser implements DefinitionFactory<TextSource<F
         builder.setTokenExpressions(result.expressions());
         builder.setFlavorAnnotations(result.flavorAnnotations());
         builder.setTokensInCssProperties(result.tokensInCssProperties());
+        builder.setRuntimeInvariant(result.runtimeInvariant());
         builder.setAccess(new DefinitionAccessImpl(AuraContext.Access.PUBLIC));
 
         return builder.build();
@@ -114,6 +114,7 @@ public abstract class StyleParser implements DefinitionFactory<TextSource<StyleD
         builder.setContent(result.content());
         builder.setTokenExpressions(result.expressions());
         builder.setTokensInCssProperties(result.tokensInCssProperties());
+        builder.setRuntimeInvariant(result.runtimeInvariant());
         builder.setAccess(new DefinitionAccessImpl(AuraContext.Access.PUBLIC));
 
         return builder.build();
@@ -20,6 +20,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.auraframework.Aura;
 import org.auraframework.def.DefDescriptor;
@@ -46,6 +49,17 @@ import org.auraframework.util.json.Json;
  * which are static).
  */
 public class JavaModel implements Model {
+    /**
+     * Getters by class and property name, empty if the class has neither a getter nor an "is" method for the property.
+     */
+    private static final ClassValue<ConcurrentMap<String, Optional<Method>>> ACCESSORS =
+            new ClassValue<ConcurrentMap<String, Optional<Method>>>() {
+                @Override
+                protected ConcurrentMap<String, Optional<Method>> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
     private final Object bean;
     private final JavaModelDefImpl modelDef;
     private final String path;
@@ -119,6 +133,11 @@ public class JavaModel implements Model {
      * is not really in a definition. This should probably be fixed, and the
      * exceptions cleaned up.
      *
+     * The timers are switched once for the whole reference, not for each part
+     * of it. They are still switched for every reference, as the iteration and
+     * render loops that ask for many values do aura work between them, which
+     * would be counted as java time if the switch was moved up to the loop.
+     *
      * @param root The object from which we want to extract the property
      * @param key the key for the property.
      * @param def the model definition.
@@ -127,6 +146,16 @@ public class JavaModel implements Model {
         LoggingService loggingService = Aura.getLoggingService();
         loggingService.stopTimer(LoggingService.TIMER_AURA);
         loggingService.startTimer("java");
+        try {
+            return resolveValue(loggingService, root, key, def);
+        } finally {
+            loggingService.stopTimer("java");
+            loggingService.startTimer(LoggingService.TIMER_AURA);
+        }
+    }
+
+    private static Object resolveValue(LoggingService loggingService, Object root, PropertyReference key,
+            ModelDef def) throws QuickFixException {
         Object ret = null;
         try {
             String part = key.getRoot();
@@ -153,22 +182,17 @@ public class JavaModel implements Model {
             } else if(root instanceof JavascriptMockHandler.Returns) {
                 try {
                     Object answer = ((JavascriptMockHandler<?>.Returns<?>)root).answer();
-                    return getValue(answer, key, def);
+                    return resolveValue(loggingService, answer, key, def);
                 } catch (Throwable e) {
                     // The answer was an exception
                     return e;
                 }
             }
             else {
-                Method meth = null;
-                try {
-                    meth = root.getClass().getMethod("get" + AuraTextUtil.initCap(part));
-                } catch (NoSuchMethodException e) {
-                    try {
-                        meth = root.getClass().getMethod("is" + AuraTextUtil.initCap(part));
-                    } catch (NoSuchMethodException nme) {
-                        throw makeException("no such property: " + part, e, def);
-                    }
+                Method meth = getAccessor(root.getClass(), part);
+                if (meth == null) {
+                    throw makeException("no such property: " + part, new NoSuchMethodException(
+                            root.getClass().getName() + ".get" + AuraTextUtil.initCap(part) + "()"), def);
                 }
                 try {
                     ret = meth.invoke(root);
@@ -187,20 +211,49 @@ public class JavaModel implements Model {
                 vp = (ret instanceof ValueProvider) ? (ValueProvider) ret : new JavaValueProvider(ret);
             }
             if (stem != null) {
-                ret = vp.getValue(stem);
+                if (vp instanceof JavaValueProvider) {
+                    // Same as vp.getValue(stem), without switching the timers again.
+                    ret = resolveValue(loggingService, ((JavaValueProvider) vp).unwrap(), stem, null);
+                } else {
+                    ret = vp.getValue(stem);
+                }
             }
         } catch (AuraRuntimeException lre) {
             throw lre;
         } catch (Exception e) {
             throw makeException(e.getMessage(), e, def);
-        } finally {
-            loggingService.stopTimer("java");
-            loggingService.startTimer(LoggingService.TIMER_AURA);
         }
 
         return ret;
     }
 
+    /**
+     * Get the getter, or failing that the "is" method, for a property.
+     *
+     * @return the method, or null if there is none.
+     */
+    private static Method getAccessor(Class<?> type, String property) {
+        ConcurrentMap<String, Optional<Method>> accessors = ACCESSORS.get(type);
+        Optional<Method> accessor = accessors.get(property);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(property, p -> Optional.ofNullable(findAccessor(type, p)));
+        }
+        return accessor.orElse(null);
+    }
+
+    private static Method findAccessor(Class<?> type, String property) {
+        String name = AuraTextUtil.initCap(property);
+        try {
+            return type.getMethod("get" + name);
+        } catch (NoSuchMethodException e) {
+            try {
+                return type.getMethod("is" + name);
+            } catch (NoSuchMethodException nme) {
+                return null;
+            }
+        }
+    }
+
     private static AuraRuntimeException makeException(String message, Throwable cause, ModelDef def) {
         if (def != null) {
             return new AuraExecutionException(message,def.getLocation(),cause);
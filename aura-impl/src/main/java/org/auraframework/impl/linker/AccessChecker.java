@@ -16,6 +16,7 @@
 package org.auraframework.impl.linker;
 
 import java.util.Map;
+import java.util.Objects;
 
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.def.DefDescriptor;
@@ -28,11 +29,31 @@ import org.auraframework.throwable.NoAccessException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 public class AccessChecker {
+    /** Default number of definitions to keep the access of */
+    private static final int DEFAULT_CACHE_SIZE = 16 * 1024;
+
     private final ConfigAdapter configAdapter;
 
+    /**
+     * The part of a check that only depends on the definition, shared by all requests.
+     *
+     * It is keyed by the descriptor, the parent descriptor of a sub definition and the UID of the definition, so a
+     * changed source gets a new entry. Nothing from the config adapter is kept here, as which namespaces are internal
+     * or privileged can change at runtime.
+     */
+    private final Cache<TargetKey, Target> targets;
+
     public AccessChecker(ConfigAdapter configAdapter) {
+        this(configAdapter, getCacheSize());
+    }
+
+    public AccessChecker(ConfigAdapter configAdapter, int cacheSize) {
         this.configAdapter = configAdapter;
+        this.targets = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
     }
 
     /**
@@ -84,8 +105,12 @@ public class AccessChecker {
 
     /**
      * Internal routine to compute access messages.
+     *
+     * The internal and privileged namespace checks ask the config adapter on every call. The rest of the decision
+     * is kept in the per-context cache, as it was before.
      */
-    private <D extends Definition> String computeAccess(DefDescriptor<?> referencingDescriptor, D def, Map<String,String> accessCheckCache) {
+    private <D extends Definition> String computeAccess(DefDescriptor<?> referencingDescriptor, D def,
+            Map<String,String> accessCheckCache) {
         if (def == null) {
             return null;
         }
@@ -120,11 +145,9 @@ public class AccessChecker {
         }
         String referencingNamespace = null;
         if (referencingDescriptor != null) {
-            String prefix = referencingDescriptor.getPrefix();
-            if (configAdapter.isUnsecuredPrefix(prefix)) {
+            if (configAdapter.isUnsecuredPrefix(referencingDescriptor.getPrefix())) {
                 return null;
             }
-
             referencingNamespace = referencingDescriptor.getNamespace();
 
             // The caller is in an internal namespace let them through
@@ -138,60 +161,23 @@ public class AccessChecker {
             }
         }
 
-        String namespace;
-        String target;
-
-        if (def instanceof ParentedDef) {
-            ParentedDef parentedDef = (ParentedDef) def;
-            DefDescriptor<?> parentDescriptor = parentedDef.getParentDescriptor();
-            namespace = parentDescriptor.getNamespace();
-            target = String.format("%s:%s.%s", namespace, parentDescriptor.getName(), desc.getName());
-        } else {
-            namespace = desc.getNamespace();
-            target = String.format("%s:%s", namespace, desc.getName());
-        }
+        Target target = getTarget(def, desc);
 
         // Cache key is of the form "referencingNamespace>defNamespace:defName[.subDefName].defTypeOrdinal"
-        DefType defType = desc.getDefType();
-        String key = String.format("%s>%s.%d", referencingNamespace == null ? "" : referencingNamespace, target,
-                defType.ordinal());
-
+        String key = null;
         String status = null;
         if (accessCheckCache != null) {
+            key = (referencingNamespace == null ? "" : referencingNamespace) + ">" + target.key;
             status = accessCheckCache.get(key);
         }
 
         if (status == null) {
-            // System.out.printf("** MDR.miss.assertAccess() cache miss for: %s\n", key);
             // We may re-enter this code, but only in race conditions. We should generate the
             // same string, and the only way to protect against this is to lock it.
-
-            if (!configAdapter.isUnsecuredNamespace(namespace)
-                    && !configAdapter.isUnsecuredPrefix(desc.getPrefix())) {
-                if (referencingNamespace == null || referencingNamespace.isEmpty()) {
-                    status = String
-                            .format("Access to %s '%s' is not allowed: referencing namespace was empty or null",
-                                    defType, target);
-                } else if (!referencingNamespace.equals(namespace)) {
-                    // The caller and the def are not in the same namespace
-                    status = String
-                            .format("Access to %s '%s' with access '%s' from namespace '%s' in '%s(%s)' is not allowed",
-                                    defType.toString().toLowerCase(), target, def.getAccess().toString(),
-                                    referencingNamespace, referencingDescriptor, referencingDescriptor.getDefType());
-                } else if (access.isPrivate()) {
-                    status = String
-                            .format("Access to %s '%s' with access PRIVATE from namespace '%s' in '%s(%s)' is not allowed",
-                                    defType.toString().toLowerCase(), target, referencingNamespace,
-                                    referencingDescriptor, referencingDescriptor.getDefType());
-                }
-            }
-            if (status == null) {
-                status = "";
-            }
+            status = getStatus(referencingDescriptor, referencingNamespace, def, target);
             if (accessCheckCache != null) {
                 accessCheckCache.put(key, status);
             }
-
         }
 
         if (status.isEmpty()) {
@@ -202,7 +188,50 @@ public class AccessChecker {
             return status;
         }
 
-        return DefinitionNotFoundException.getMessage(def.getDescriptor().getDefType(), def.getDescriptor().getName());
+        return DefinitionNotFoundException.getMessage(desc.getDefType(), desc.getName());
+    }
+
+    /**
+     * Get the part of the check that only depends on the definition.
+     */
+    private Target getTarget(Definition def, DefDescriptor<?> desc) {
+        DefDescriptor<?> parentDescriptor = def instanceof ParentedDef ? ((ParentedDef) def).getParentDescriptor()
+                : null;
+        TargetKey targetKey = new TargetKey(desc, parentDescriptor, def.getOwnHash());
+        Target target = targets.getIfPresent(targetKey);
+        if (target == null) {
+            // Racing threads build the same target.
+            target = new Target(desc, parentDescriptor);
+            targets.put(targetKey, target);
+        }
+        return target;
+    }
+
+    /**
+     * Check the namespace of a reference against the target, the empty string if access is granted.
+     */
+    private String getStatus(DefDescriptor<?> referencingDescriptor, String referencingNamespace, Definition def,
+            Target target) {
+        if (configAdapter.isUnsecuredNamespace(target.namespace) || configAdapter.isUnsecuredPrefix(target.prefix)) {
+            return "";
+        }
+        DefType defType = target.defType;
+        if (referencingNamespace == null || referencingNamespace.isEmpty()) {
+            return String.format("Access to %s '%s' is not allowed: referencing namespace was empty or null",
+                    defType, target.name);
+        }
+        if (!referencingNamespace.equals(target.namespace)) {
+            // The caller and the def are not in the same namespace
+            return String.format("Access to %s '%s' with access '%s' from namespace '%s' in '%s(%s)' is not allowed",
+                    defType.toString().toLowerCase(), target.name, def.getAccess().toString(),
+                    referencingNamespace, referencingDescriptor, referencingDescriptor.getDefType());
+        }
+        if (def.getAccess().isPrivate()) {
+            return String.format("Access to %s '%s' with access PRIVATE from namespace '%s' in '%s(%s)' is not allowed",
+                    defType.toString().toLowerCase(), target.name, referencingNamespace,
+                    referencingDescriptor, referencingDescriptor.getDefType());
+        }
+        return "";
     }
 
     /**
@@ -252,4 +281,76 @@ public class AccessChecker {
         }
         return "Access to MODULE " + targetNamespace + ":" + targetName + " is not allowed" + from;
     }
+
+    private static int getCacheSize() {
+        String prop = System.getProperty("aura.cache.accessCheckCacheSize");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return DEFAULT_CACHE_SIZE;
+    }
+
+    /**
+     * A definition, by descriptor, parent descriptor for a sub definition, and UID.
+     */
+    private static final class TargetKey {
+        private final DefDescriptor<?> descriptor;
+        private final DefDescriptor<?> parentDescriptor;
+        private final String uid;
+        private final int hashCode;
+
+        private TargetKey(DefDescriptor<?> descriptor, DefDescriptor<?> parentDescriptor, String uid) {
+            this.descriptor = descriptor;
+            this.parentDescriptor = parentDescriptor;
+            this.uid = uid;
+            this.hashCode = Objects.hash(descriptor, parentDescriptor, uid);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof TargetKey)) {
+                return false;
+            }
+            TargetKey other = (TargetKey) obj;
+            return descriptor.equals(other.descriptor) && Objects.equals(parentDescriptor, other.parentDescriptor)
+                    && Objects.equals(uid, other.uid);
+        }
+    }
+
+    /**
+     * What a check needs from the referenced definition: the namespace it is secured by, which is the parent's for
+     * a sub definition, and the names used in the key and messages.
+     */
+    private static final class Target {
+        private final String namespace;
+        private final String prefix;
+        private final DefType defType;
+        private final String name;
+        private final String key;
+
+        private Target(DefDescriptor<?> desc, DefDescriptor<?> parentDescriptor) {
+            this.prefix = desc.getPrefix();
+            this.defType = desc.getDefType();
+            if (parentDescriptor != null) {
+                this.namespace = parentDescriptor.getNamespace();
+                this.name = String.format("%s:%s.%s", namespace, parentDescriptor.getName(), desc.getName());
+            } else {
+                this.namespace = desc.getNamespace();
+                this.name = String.format("%s:%s", namespace, desc.getName());
+            }
+            this.key = name + "." + defType.ordinal();
+        }
+    }
 }
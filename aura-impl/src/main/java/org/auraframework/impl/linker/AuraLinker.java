@@ -22,6 +22,9 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 
@@ -34,6 +37,8 @@ import org.auraframework.def.ClientLibraryDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.impl.root.component.BaseComponentDefImpl;
+import org.auraframework.impl.system.BundleAwareDefRegistry;
+import org.auraframework.impl.system.CompilingDefRegistry;
 import org.auraframework.impl.validation.ReferenceValidationContextImpl;
 import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraLocalStore;
@@ -89,6 +94,22 @@ public class AuraLinker {
 
     private boolean serializingLinkedDefinition = false;
 
+    /**
+     * Executor used to build definitions ahead of the link walk, null to build everything on this thread.
+     */
+    private Executor prefetchExecutor;
+
+    /**
+     * Set while a prefetch task runs. Building a definition can link another one, and a link started on a prefetch
+     * thread must not queue more work behind itself on the same executor and wait for it.
+     */
+    private static final ThreadLocal<Boolean> prefetching = new ThreadLocal<>();
+
+    /**
+     * Set while a prefetch task is being skipped, see {@link #skipPrefetch(Runnable)}.
+     */
+    private static final ThreadLocal<Boolean> skipping = new ThreadLocal<>();
+
     public AuraLinker(DefDescriptor<? extends Definition> topLevel,
                       Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache,
                       LoggingService loggingService, ConfigAdapter configAdapter,
@@ -117,6 +138,33 @@ public class AuraLinker {
         return topLevel;
     }
 
+    /**
+     * Set an executor on which to build definitions before linking.
+     *
+     * The executor must run tasks with an established context, as building a definition may need one, or hand them to
+     * {@link #skipPrefetch(Runnable)}.
+     *
+     * @param prefetchExecutor the executor, or null to build everything on the linking thread.
+     */
+    public void setPrefetchExecutor(@CheckForNull Executor prefetchExecutor) {
+        this.prefetchExecutor = prefetchExecutor;
+    }
+
+    /**
+     * Complete a prefetch task without building anything, for an executor that cannot run it, e.g. because it could
+     * not set up a context. The link walk builds the definition on the linking thread instead.
+     *
+     * @param task a task handed to the prefetch executor.
+     */
+    public static void skipPrefetch(Runnable task) {
+        skipping.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            skipping.remove();
+        }
+    }
+
     /**
      * Compile a single definition, finding all of the static dependencies.
      *
@@ -178,6 +226,9 @@ public class AuraLinker {
             loggingService.startTimer(LoggingService.TIMER_DEFINITION_CREATION);
         }
         try {
+            if (!nested && prefetchExecutor != null && prefetching.get() == null) {
+                prefetch(descriptor);
+            }
             Set<DefDescriptor<?>> stack = Sets.newLinkedHashSet();
             def = getHelper(descriptor, stack, null);
             if (!nested) {
@@ -364,6 +415,115 @@ public class AuraLinker {
     }
 
 
+    /**
+     * Build the uncached definitions reachable from a descriptor in parallel, one dependency level at a time.
+     *
+     * This only warms the registries. Each level of the dependency tree that is not already linked or cached is
+     * requested from its registry on the prefetch executor, so the expensive part of building (parsing and
+     * minification) runs concurrently. The link walk that follows is unchanged: it gets the already built
+     * definitions back from the registries, validates them on this thread in the same order as before, and so
+     * produces the same dependencies and UID. Errors are ignored here, the walk hits them again and reports them.
+     * Links started while building on the executor do not prefetch, they build everything on their own thread.
+     *
+     * @param descriptor the root of the tree to build.
+     */
+    private void prefetch(DefDescriptor<?> descriptor) {
+        Set<DefDescriptor<?>> seen = Sets.newHashSet();
+        List<DefDescriptor<?>> frontier = Lists.newArrayList();
+        seen.add(descriptor);
+        frontier.add(descriptor);
+
+        while (!frontier.isEmpty()) {
+            List<Definition> found = Lists.newArrayList();
+            List<CompletableFuture<Definition>> building = Lists.newArrayList();
+
+            for (DefDescriptor<?> current : frontier) {
+                Definition def = getAvailableDefinition(current);
+                if (def != null) {
+                    found.add(def);
+                    continue;
+                }
+                DefRegistry registry = registries.getRegistryFor(current);
+                if (registry == null || !shouldPrefetch(registry)) {
+                    continue;
+                }
+                try {
+                    building.add(CompletableFuture.supplyAsync(() -> {
+                        if (skipping.get() != null) {
+                            return null;
+                        }
+                        prefetching.set(Boolean.TRUE);
+                        try {
+                            return registry.getDef(current);
+                        } catch (Throwable t) {
+                            return null;
+                        } finally {
+                            prefetching.remove();
+                        }
+                    }, prefetchExecutor));
+                } catch (RejectedExecutionException ree) {
+                    // the walk will build whatever is left.
+                    break;
+                }
+            }
+            for (CompletableFuture<Definition> future : building) {
+                Definition def = future.join();
+                if (def != null) {
+                    found.add(def);
+                }
+            }
+
+            frontier = Lists.newArrayList();
+            for (Definition def : found) {
+                Set<DefDescriptor<?>> deps;
+                try {
+                    deps = def.getDependencySet();
+                } catch (Throwable t) {
+                    // not validated yet, the walk will find the rest.
+                    continue;
+                }
+                for (DefDescriptor<?> dep : deps) {
+                    if (seen.add(dep)) {
+                        frontier.add(dep);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get a definition that does not need to be built, from the linked set or the caches.
+     */
+    @CheckForNull
+    private Definition getAvailableDefinition(DefDescriptor<?> descriptor) {
+        LinkingDefinition<?> linkingDef = linked.get(descriptor);
+        if (linkingDef != null && linkingDef.def != null) {
+            return linkingDef.def;
+        }
+        if (localStore != null) {
+            Optional<? extends Definition> local = localStore.getDefinition(descriptor);
+            if (local != null) {
+                return local.orNull();
+            }
+        }
+        if (defsCache != null) {
+            Optional<? extends Definition> cached = defsCache.getIfPresent(descriptor);
+            if (cached != null) {
+                return cached.orNull();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Only registries that hold on to what they build are worth building ahead of the walk, otherwise the walk
+     * would just build the definition a second time.
+     */
+    protected boolean shouldPrefetch(DefRegistry registry) {
+        return registry instanceof CompilingDefRegistry
+                || (registry instanceof BundleAwareDefRegistry && registry.isCacheable());
+    }
+
     /**
      * finish up the validation of a set of compiling defs.
      *
@@ -30,6 +30,7 @@ import org.auraframework.impl.util.AuraUtil;
 import org.auraframework.throwable.quickfix.InvalidExpressionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
+import org.auraframework.util.json.JsonKey;
 import org.auraframework.util.json.Serialization;
 import org.auraframework.util.json.Serialization.ReferenceType;
 import org.auraframework.validation.ReferenceValidationContext;
@@ -43,6 +44,8 @@ import org.auraframework.validation.ReferenceValidationContext;
 public class AttributeDefRefImpl extends DefinitionImpl<AttributeDef> implements AttributeDefRef {
 
     private static final long serialVersionUID = -7125435060409783114L;
+    private static final JsonKey DESCRIPTOR_KEY = JsonKey.of("descriptor");
+    private static final JsonKey VALUE_KEY = JsonKey.of("value");
 
     public static final String BODY_ATTRIBUTE_NAME = "body";
 
@@ -109,8 +112,8 @@ public class AttributeDefRefImpl extends DefinitionImpl<AttributeDef> implements
     @Override
     public void serialize(Json json) throws IOException {
         json.writeMapBegin();
-        json.writeMapEntry("descriptor", getDescriptor());
-        json.writeMapEntry("value", getValue());
+        json.writeMapEntry(DESCRIPTOR_KEY, getDescriptor());
+        json.writeMapEntry(VALUE_KEY, getValue());
         json.writeMapEnd();
     }
 
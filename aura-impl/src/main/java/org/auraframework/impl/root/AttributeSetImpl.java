@@ -50,6 +50,7 @@ import org.auraframework.throwable.quickfix.InvalidExpressionException;
 import org.auraframework.throwable.quickfix.MissingRequiredAttributeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
+import org.auraframework.util.json.JsonKey;
 import org.auraframework.util.json.Serialization;
 import org.auraframework.util.json.Serialization.ReferenceType;
 
@@ -65,6 +66,9 @@ import java.util.Set;
 @Serialization(referenceType = ReferenceType.IDENTITY)
 public class AttributeSetImpl implements AttributeSet {
     private static final Location SUPER_PASSTHROUGH = AuraUtil.getExternalLocation("super component attribute passthrough");
+    private static final JsonKey VALUE_PROVIDER_KEY = JsonKey.of("valueProvider");
+    private static final JsonKey VALUES_KEY = JsonKey.of("values");
+    private static final JsonKey EVENTS_KEY = JsonKey.of("events");
 
     // Immutable? I think not.
     private DefDescriptor<? extends RootDefinition> rootDefDescriptor;
@@ -361,10 +365,10 @@ public class AttributeSetImpl implements AttributeSet {
     public void serialize(Json json) throws IOException {
         try {
             json.writeMapBegin();
-            json.writeMapEntry("valueProvider", valueProvider);
+            json.writeMapEntry(VALUE_PROVIDER_KEY, valueProvider);
             if (!attributes.isEmpty()) {
                 RootDefinition def = getRootDefinition();
-                json.writeMapKey("values");
+                json.writeMapKey(VALUES_KEY);
                 json.writeMapBegin();
 
                 for (Attribute attribute : attributes.values()) {
@@ -387,7 +391,7 @@ public class AttributeSetImpl implements AttributeSet {
             }
 
             if (!events.isEmpty()) {
-                json.writeMapEntry("events", events);
+                json.writeMapEntry(EVENTS_KEY, events);
             }
 
             json.writeMapEnd();
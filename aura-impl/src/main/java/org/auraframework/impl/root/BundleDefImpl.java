@@ -142,7 +142,7 @@ public abstract class BundleDefImpl<T extends BundleDef> extends DefinitionImpl<
                         hashAcc.append(entry.getValue().getOwnHash());
                     }
                 }
-                working = new Hash(hashAcc.toString().getBytes()).toString();
+                working = new Hash.StringBuilder(Hash.getUidAlgorithm()).addString(hashAcc.toString()).build().toString();
             }
             return working;
         }
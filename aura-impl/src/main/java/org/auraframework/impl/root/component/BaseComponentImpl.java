@@ -16,7 +16,6 @@
 package org.auraframework.impl.root.component;
 
 import java.io.IOException;
-import java.io.StringWriter;
 import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -63,13 +62,24 @@ import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.MissingRequiredAttributeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
+import org.auraframework.util.json.JsonKey;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.io.CharStreams;
 
 public abstract class BaseComponentImpl<D extends BaseComponentDef, I extends BaseComponent<D, I>> implements
 BaseComponent<D, I> {
 
+    private static final JsonKey COMPONENT_DEF_KEY = JsonKey.of("componentDef");
+    private static final JsonKey DESCRIPTOR_KEY = JsonKey.of("descriptor");
+    private static final JsonKey ORIGINAL_KEY = JsonKey.of("original");
+    private static final JsonKey CREATION_PATH_KEY = JsonKey.of("creationPath");
+    private static final JsonKey ATTRIBUTES_KEY = JsonKey.of("attributes");
+    private static final JsonKey VERSION_KEY = JsonKey.of("version");
+    private static final JsonKey RENDERING_KEY = JsonKey.of("rendering");
+    private static final JsonKey MODEL_KEY = JsonKey.of("model");
+
     protected final DefDescriptor<D> originalDescriptor;
     protected DefDescriptor<D> descriptor;
     protected DefDescriptor<? extends RootDefinition> intfDescriptor;
@@ -350,41 +360,40 @@ BaseComponent<D, I> {
             // This is 'case normalizing', as the client is actually case
             // sensitive for descriptors (ugh!).
             //
-            json.writeMapKey("componentDef");
+            json.writeMapKey(COMPONENT_DEF_KEY);
             json.writeMapBegin();
-            json.writeMapEntry("descriptor", def.getDescriptor());
+            json.writeMapEntry(DESCRIPTOR_KEY, def.getDescriptor());
             json.writeMapEnd();
 
             if (!descriptor.equals(originalDescriptor)) {
-                json.writeMapEntry("original", originalDescriptor);
+                json.writeMapEntry(ORIGINAL_KEY, originalDescriptor);
             }
-            json.writeMapEntry("creationPath", getPath());
+            json.writeMapEntry(CREATION_PATH_KEY, getPath());
 
             if ((attributeSet.getValueProvider() == null || hasProvidedAttributes) && !attributeSet.isEmpty()) {
-                json.writeMapEntry("attributes", attributeSet);
+                json.writeMapEntry(ATTRIBUTES_KEY, attributeSet);
             }
 
             if (def.getAPIVersion() != null  &&
                 Aura.getConfigAdapter().isInternalNamespace(def.getDescriptor().getNamespace()) &&
                 context.getCurrentCallingDescriptor() == null) {
-                json.writeMapEntry("version", def.getAPIVersion());
+                json.writeMapEntry(VERSION_KEY, def.getAPIVersion());
             }
 
             if (def.getRendererDescriptor() != null) {
                 RendererDef rendererDef = def.getRendererDescriptor().getDef();
                 if (rendererDef.isLocal()) {
-                    StringWriter sw = new StringWriter();
-                    StringWriter garbage = new StringWriter();
                     RendererInstance renderer = Aura.getInstanceService().getInstance(rendererDef);
-                    renderer.render(this, new RenderContextImpl(sw, garbage));
-                    // Not writing directly to json.appendable because then it wouldn't get escaped.
-                    // ideally Json would have a FilterWriter that escapes that we could use here.
-                    json.writeMapEntry("rendering", sw.toString());
+                    // Render straight into the json string, escaping as it goes. Scripts are not sent.
+                    json.writeMapKey(RENDERING_KEY);
+                    Appendable rendering = json.writeStringBegin();
+                    renderer.render(this, new RenderContextImpl(rendering, CharStreams.nullWriter()));
+                    json.writeStringEnd();
                 }
             }
 
             if (model != null && model.getDescriptor().getDef().hasMembers()) {
-                json.writeMapEntry("model", model);
+                json.writeMapEntry(MODEL_KEY, model);
             }
 
             json.writeMapEnd();
@@ -41,6 +41,7 @@ import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.InvalidDefinitionException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.json.Json;
+import org.auraframework.util.json.JsonKey;
 import org.auraframework.validation.ReferenceValidationContext;
 
 import com.google.common.collect.Lists;
@@ -52,6 +53,12 @@ import com.google.common.collect.Lists;
  */
 public class ComponentDefRefImpl extends DefinitionReferenceImpl<ComponentDef> implements ComponentDefRef {
     private static final long serialVersionUID = 4650210933042431716L;
+    private static final JsonKey COMPONENT_DEF_KEY = JsonKey.of("componentDef");
+    private static final JsonKey LOCAL_ID_KEY = JsonKey.of("localId");
+    private static final JsonKey FLAVORABLE_KEY = JsonKey.of("flavorable");
+    private static final JsonKey FLAVOR_KEY = JsonKey.of("flavor");
+    private static final JsonKey ATTRIBUTES_KEY = JsonKey.of("attributes");
+    private static final JsonKey VALUES_KEY = JsonKey.of("values");
 
     protected ComponentDefRefImpl(Builder builder) {
         super(builder);
@@ -143,22 +150,22 @@ public class ComponentDefRefImpl extends DefinitionReferenceImpl<ComponentDef> i
             ComponentDef def = descriptor.getDef();
 
             json.writeMapBegin();
-            json.writeMapEntry("componentDef", def);
-            json.writeMapEntry("localId", localId);
+            json.writeMapEntry(COMPONENT_DEF_KEY, def);
+            json.writeMapEntry(LOCAL_ID_KEY, localId);
 
             if (isFlavorable) {
-                json.writeMapEntry("flavorable", isFlavorable);
+                json.writeMapEntry(FLAVORABLE_KEY, isFlavorable);
             }
 
             if (flavor != null) {
-                json.writeMapEntry("flavor", flavor);
+                json.writeMapEntry(FLAVOR_KEY, flavor);
             }
 
             if (!attributeValues.isEmpty()) {
-                json.writeMapKey("attributes");
+                json.writeMapKey(ATTRIBUTES_KEY);
 
                 json.writeMapBegin();
-                json.writeMapKey("values");
+                json.writeMapKey(VALUES_KEY);
 
                 json.writeMapBegin();
                 for (Map.Entry<DefDescriptor<AttributeDef>, AttributeDefRef> entry : attributeValues.entrySet()) {
@@ -18,7 +18,10 @@ package org.auraframework.impl.service;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 
@@ -33,6 +36,9 @@ import org.auraframework.system.Source;
 import org.auraframework.system.SourceLoader;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 /**
@@ -49,26 +55,77 @@ public class CompilerServiceImpl implements CompilerService {
     @Inject
     private List<DefinitionFactory<?, ?>> factories;
 
-    private final Map<String, DefinitionFactory<?,?>> factoryMap = Maps.newHashMap();
+    /**
+     * The dispatch table, built from the factories on first use.
+     */
+    private volatile Map<String, FactoryTable> factoryTables;
 
-    private <S extends Source<D>, D extends Definition> DefinitionFactory<S,D> findFactory(S source, Class<D> type) {
-        DefinitionFactory<S,D> found = null;
-        Class<?> sourceClass = source.getClass();
+    /**
+     * The factories for a single mime type, with the resolved factory for each source and definition class.
+     *
+     * Resolution only depends on the classes, so it is done once per pair. Lookups on the hot path are two map
+     * gets with no allocation, and the maps are safe to share between compiling threads.
+     */
+    private static class FactoryTable {
+        private final List<DefinitionFactory<?, ?>> factories = Lists.newArrayList();
+        private final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, Optional<DefinitionFactory<?, ?>>>> resolved =
+            new ConcurrentHashMap<>();
+
+        @CheckForNull
+        private DefinitionFactory<?, ?> get(Class<?> sourceClass, Class<?> type) {
+            ConcurrentMap<Class<?>, Optional<DefinitionFactory<?, ?>>> byType = resolved.get(sourceClass);
+            if (byType == null) {
+                byType = resolved.computeIfAbsent(sourceClass, k -> new ConcurrentHashMap<>());
+            }
+            Optional<DefinitionFactory<?, ?>> factory = byType.get(type);
+            if (factory == null) {
+                factory = Optional.fromNullable(findFactory(sourceClass, type));
+                byType.putIfAbsent(type, factory);
+            }
+            return factory.orNull();
+        }
 
-        for (DefinitionFactory<?,?> factory : factories) {
-            if (source.getMimeType().equals(factory.getMimeType())
-                    && type.isAssignableFrom(factory.getDefinitionClass())
-                    && (found == null || found.getDefinitionClass().isAssignableFrom(factory.getDefinitionClass()))
-                    && factory.getSourceInterface().isAssignableFrom(sourceClass)
-                    && (found == null
-                        || found.getSourceInterface().isAssignableFrom(factory.getSourceInterface()))) {
-                @SuppressWarnings("unchecked")
-                DefinitionFactory<S,D> t = (DefinitionFactory<S,D>)factory;
+        /**
+         * Find the most specific factory, both in definition class and in source interface.
+         */
+        @CheckForNull
+        private DefinitionFactory<?, ?> findFactory(Class<?> sourceClass, Class<?> type) {
+            DefinitionFactory<?, ?> found = null;
+
+            for (DefinitionFactory<?, ?> factory : factories) {
+                if (type.isAssignableFrom(factory.getDefinitionClass())
+                        && (found == null || found.getDefinitionClass().isAssignableFrom(factory.getDefinitionClass()))
+                        && factory.getSourceInterface().isAssignableFrom(sourceClass)
+                        && (found == null
+                            || found.getSourceInterface().isAssignableFrom(factory.getSourceInterface()))) {
+                    found = factory;
+                }
+            }
+            return found;
+        }
+    }
 
-                found = t;
+    private Map<String, FactoryTable> getFactoryTables() {
+        Map<String, FactoryTable> tables = factoryTables;
+        if (tables == null) {
+            synchronized (this) {
+                tables = factoryTables;
+                if (tables == null) {
+                    tables = Maps.newHashMap();
+                    if (factories != null) {
+                        for (DefinitionFactory<?, ?> factory : factories) {
+                            if (factory.getMimeType() == null) {
+                                continue;
+                            }
+                            tables.computeIfAbsent(factory.getMimeType(), k -> new FactoryTable()).factories.add(factory);
+                        }
+                    }
+                    tables = ImmutableMap.copyOf(tables);
+                    factoryTables = tables;
+                }
             }
         }
-        return found;
+        return tables;
     }
 
     private <S extends Source<D>, D extends Definition> D getDefinitionTypeSafe(DefDescriptor<D> descriptor,
@@ -76,13 +133,12 @@ public class CompilerServiceImpl implements CompilerService {
         if (source == null) {
             return null;
         }
-        String key = source.getClass().getName()+":"+type.getName()+":"+source.getMimeType();
-        @SuppressWarnings("unchecked")
-        DefinitionFactory<S,D> factory = (DefinitionFactory<S,D>)factoryMap.get(key);
-        if (factory == null) {
-            factory = findFactory(source, type);
-            factoryMap.put(key, factory);
+        FactoryTable table = getFactoryTables().get(source.getMimeType());
+        if (table == null) {
+            return null;
         }
+        @SuppressWarnings("unchecked")
+        DefinitionFactory<S,D> factory = (DefinitionFactory<S,D>)table.get(source.getClass(), type);
         if (factory == null) {
             return null;
         }
@@ -136,7 +192,8 @@ public class CompilerServiceImpl implements CompilerService {
     /**
      * @param factories the factories to set
      */
-    public void setFactories(List<DefinitionFactory<?, ?>> factories) {
+    public synchronized void setFactories(List<DefinitionFactory<?, ?>> factories) {
         this.factories = factories;
+        this.factoryTables = null;
     }
 }
@@ -23,13 +23,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.JarURLConnection;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
@@ -44,6 +50,7 @@ import org.auraframework.system.Source;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.util.IOUtil;
 import org.auraframework.util.resource.ResourceLoader;
+import org.auraframework.util.text.GlobMatcher;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
@@ -60,6 +67,8 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
     private final Set<FileBundleSourceBuilder> builders;
     private final List<FileSourceLocation> sourceLocations;
     private Map<String, FileEntry> fileMap;
+    /** Bundles by lower cased namespace, then sorted by lower cased name, for searching by glob */
+    private Map<String, NavigableMap<String, FileEntry>> nameIndex;
     private Set<String> namespaces;
 
     /**
@@ -140,37 +149,54 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
         ImmutableSet.Builder<String> namespacesBuilder = ImmutableSet.builder();
         Set<String> namespacesCheck = new HashSet<>();
         Map<String, FileEntry> map = new ConcurrentHashMap<>();
+        Map<String, NavigableMap<String, FileEntry>> index = new HashMap<>();
 
+        List<FileSourceLocation> locations = new ArrayList<>();
+        List<File> namespaceDirectories = new ArrayList<>();
         for (FileSourceLocation sourceLocation : sourceLocations) {
             File directory = sourceLocation.getSourceDirectory();
             for (File namespace : directory.listFiles()) {
                 if (namespace.isDirectory()) {
-                    String namespaceName = namespace.getName();
-                    String namespaceNameLower = namespaceName.toLowerCase();
-                    if (!namespacesCheck.contains(namespaceNameLower)) { // FIXME don't do this! W-5451217
-                        namespacesBuilder.add(namespaceName);
-                        namespacesCheck.add(namespaceNameLower);
-                    }
+                    locations.add(sourceLocation);
+                    namespaceDirectories.add(namespace);
+                }
+            }
+        }
 
-                    for (File file : namespace.listFiles()) {
-                        FileEntry entry = new FileEntry(sourceLocation, file, namespaceName, file.getName());
-                        String key = entry.qualified.toLowerCase();
-                        if (!map.containsKey(key)) {
-                            map.put(key, entry);
-                        } else {
-                            FileEntry prev = map.get(key);
-                            throw new AuraRuntimeException(String.format("Found duplicate bundle named '%s' in namespace '%s'. "
-                                    + "Bundle names must be unique within the same namespace across component and module "
-                                    + "sources, but found '%s' and '%s'",
-                                    entry.name, entry.namespace, prev.bundleDirectory.getAbsolutePath(), file.getAbsolutePath()));
-                        }
-                    }
+        // Listing the bundles of each namespace is most of the scan, and the namespaces are independent. The
+        // listings keep their order, so namespaces and duplicate errors come out as they would in a serial scan.
+        List<File[]> listings = namespaceDirectories.parallelStream().map(File::listFiles)
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < namespaceDirectories.size(); i++) {
+            FileSourceLocation sourceLocation = locations.get(i);
+            String namespaceName = namespaceDirectories.get(i).getName();
+            String namespaceNameLower = namespaceName.toLowerCase();
+            if (!namespacesCheck.contains(namespaceNameLower)) { // FIXME don't do this! W-5451217
+                namespacesBuilder.add(namespaceName);
+                namespacesCheck.add(namespaceNameLower);
+            }
+            NavigableMap<String, FileEntry> names = index.computeIfAbsent(namespaceNameLower, k -> new TreeMap<>());
+
+            for (File file : listings.get(i)) {
+                FileEntry entry = new FileEntry(sourceLocation, file, namespaceName, file.getName());
+                String key = entry.qualified.toLowerCase();
+                if (!map.containsKey(key)) {
+                    map.put(key, entry);
+                    names.put(entry.name.toLowerCase(), entry);
+                } else {
+                    FileEntry prev = map.get(key);
+                    throw new AuraRuntimeException(String.format("Found duplicate bundle named '%s' in namespace '%s'. "
+                            + "Bundle names must be unique within the same namespace across component and module "
+                            + "sources, but found '%s' and '%s'",
+                            entry.name, entry.namespace, prev.bundleDirectory.getAbsolutePath(), file.getAbsolutePath()));
                 }
             }
         }
 
         namespaces = namespacesBuilder.build();
         fileMap = map;
+        nameIndex = index;
     }
 
     @Override
@@ -251,13 +277,15 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
                 if (descriptor != null && matcher.matchDescriptor(descriptor)) {
                     ret.add(descriptor);
                 }
-            } else {
-                for (FileEntry entry : fileMap.values()) {
-                    if (matcher.matchNamespace(entry.namespace) && matcher.matchName(entry.name)) {
-                        BundleSource<?> source = createSource(entry);
-                        if (source != null) {
-                            if (matcher.matchDescriptor(source.getDescriptor())) {
-                                ret.add(source.getDescriptor());
+            } else if (matchesBundleType(matcher)) {
+                for (NavigableMap<String, FileEntry> names : getNamespaceEntries(matcher)) {
+                    for (FileEntry entry : getNameEntries(names, matcher.getNameMatch())) {
+                        if (matcher.matchNamespace(entry.namespace) && matcher.matchName(entry.name)) {
+                            BundleSource<?> source = createSource(entry);
+                            if (source != null) {
+                                if (matcher.matchDescriptor(source.getDescriptor())) {
+                                    ret.add(source.getDescriptor());
+                                }
                             }
                         }
                     }
@@ -269,6 +297,54 @@ public class FileBundleSourceLoader implements BundleSourceLoader, InternalNames
         }
     }
 
+    /**
+     * Bundles are only ever found by their own type, so a filter for other types can skip the search.
+     */
+    private static boolean matchesBundleType(DescriptorFilter matcher) {
+        List<DefType> defTypes = matcher.getDefTypes();
+        if (defTypes == null) {
+            return true;
+        }
+        for (DefType defType : defTypes) {
+            if (BundleSource.bundleDefTypes.contains(defType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the bundles of the namespaces that can match, by their lower cased names.
+     */
+    private Collection<NavigableMap<String, FileEntry>> getNamespaceEntries(DescriptorFilter matcher) {
+        GlobMatcher namespaceMatch = matcher.getNamespaceMatch();
+        if (namespaceMatch.isAll()) {
+            return nameIndex.values();
+        }
+        if (namespaceMatch.isConstant()) {
+            NavigableMap<String, FileEntry> names = nameIndex.get(namespaceMatch.toString().toLowerCase());
+            return names != null ? Collections.singletonList(names) : Collections.emptyList();
+        }
+        List<NavigableMap<String, FileEntry>> matching = new ArrayList<>();
+        for (Map.Entry<String, NavigableMap<String, FileEntry>> namespace : nameIndex.entrySet()) {
+            if (namespaceMatch.match(namespace.getKey())) {
+                matching.add(namespace.getValue());
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Get the bundles of a namespace that start with the literal prefix of the name match.
+     */
+    private static Collection<FileEntry> getNameEntries(NavigableMap<String, FileEntry> names, GlobMatcher nameMatch) {
+        String prefix = nameMatch.isAll() ? "" : nameMatch.getPrefix();
+        if (prefix.isEmpty()) {
+            return names.values();
+        }
+        return names.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+    }
+
     private BundleSource<?> createSource(FileEntry entry) {
         if (entry == null) {
             return null;
@@ -16,13 +16,11 @@
 package org.auraframework.impl.source.file;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
-import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Map;
 
 import org.auraframework.def.DefDescriptor;
@@ -32,9 +30,7 @@ import org.auraframework.system.Parser.Format;
 import org.auraframework.system.Source;
 import org.auraframework.system.TextSource;
 import org.auraframework.throwable.AuraRuntimeException;
-import org.auraframework.util.IOUtil;
 import org.auraframework.util.text.Hash;
-import org.auraframework.util.text.HashingReader;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -120,13 +116,12 @@ public class FileSource<D extends Definition> extends AbstractSourceImpl<D> impl
                 return contents;
             }
             try {
-                Reader reader = new InputStreamReader(new FileInputStream(file), "UTF8");
-                reader = new HashingReader(reader, hash);
-                StringWriter sw = new StringWriter();
-                IOUtil.copyStream(reader, sw);
-                contents = sw.toString();
-            } catch (FileNotFoundException e) {
-                throw new AuraRuntimeException(e);
+                // Hash the bytes as read, rather than encoding the decoded characters again.
+                byte[] bytes = Files.readAllBytes(file.toPath());
+                if (!hash.isSet()) {
+                    hash.setHash(Hash.getUidAlgorithm().hash(bytes));
+                }
+                contents = new String(bytes, StandardCharsets.UTF_8);
             } catch (IOException e) {
                 throw new AuraRuntimeException(e);
             }
@@ -78,7 +78,6 @@ public class BundleAwareDefRegistry implements DefRegistry {
         }
         public final DefDescriptor<BundleDef> descriptor;
         public BundleDef def;
-        public QuickFixException qfe;
         public BundleSource<BundleDef> source;
         public boolean initialized;
     }
@@ -176,30 +175,23 @@ public class BundleAwareDefRegistry implements DefRegistry {
         }
         synchronized (holder) {
             if (!holder.initialized) {
-                try {
-                    DefDescriptor<BundleDef> canonical = holder.descriptor;
-                    BundleSource<BundleDef> source = getSource(holder);
+                // failures are not kept, the next request compiles again.
+                DefDescriptor<BundleDef> canonical = holder.descriptor;
+                BundleSource<BundleDef> source = getSource(holder);
 
-                    // check if compilation should be invoked with namespace aliasing
-                    HashMap<String, String> namespaceMapping = null;
-                    String namespace = source.getDescriptor().getNamespace();
+                // check if compilation should be invoked with namespace aliasing
+                HashMap<String, String> namespaceMapping = null;
+                String namespace = source.getDescriptor().getNamespace();
 
-                    if (namespace != null && !namespace.equals("c")) {
-                        namespaceMapping = Maps.newHashMap(ImmutableMap.of("c", namespace));
-                    }
-
-                    CompileOptions compileOptions = new CompileOptions(EnumSet.noneOf(BundleSourceOption.class), namespaceMapping);
-                    holder.def = compilerService.compile(canonical, source, compileOptions);
-
-                } catch (QuickFixException qfe) {
-                    holder.qfe = qfe;
+                if (namespace != null && !namespace.equals("c")) {
+                    namespaceMapping = Maps.newHashMap(ImmutableMap.of("c", namespace));
                 }
+
+                CompileOptions compileOptions = new CompileOptions(EnumSet.noneOf(BundleSourceOption.class), namespaceMapping);
+                holder.def = compilerService.compile(canonical, source, compileOptions);
                 holder.initialized = true;
             }
         }
-        if (holder.qfe != null) {
-            throw holder.qfe;
-        }
         if (holder.descriptor.equals(descriptor)) {
             @SuppressWarnings("unchecked")
             T def = (T)holder.def;
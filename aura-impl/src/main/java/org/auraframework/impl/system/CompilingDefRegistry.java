@@ -48,7 +48,6 @@ public class CompilingDefRegistry implements DefRegistry {
         }
         public final DefDescriptor<?> descriptor;
         public Definition def;
-        public QuickFixException qfe;
         public boolean initialized;
     }
 
@@ -94,19 +93,13 @@ public class CompilingDefRegistry implements DefRegistry {
         }
         synchronized (holder) {
             if (!holder.initialized) {
-                try {
-                    @SuppressWarnings("unchecked")
-                    DefDescriptor<Definition> canonical = (DefDescriptor<Definition>)holder.descriptor;
-                    holder.def = compilerService.compile(sourceLoader, canonical);
-                } catch (QuickFixException qfe) {
-                    holder.qfe = qfe;
-                }
+                // failures are not kept, the next request compiles again.
+                @SuppressWarnings("unchecked")
+                DefDescriptor<Definition> canonical = (DefDescriptor<Definition>)holder.descriptor;
+                holder.def = compilerService.compile(sourceLoader, canonical);
                 holder.initialized = true;
             }
         }
-        if (holder.qfe != null) {
-            throw holder.qfe;
-        }
         @SuppressWarnings("unchecked")
         T def = (T)holder.def;
         return def;
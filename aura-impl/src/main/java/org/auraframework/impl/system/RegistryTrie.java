@@ -32,7 +32,10 @@ import org.auraframework.def.DescriptorFilter;
 import org.auraframework.system.DefRegistry;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.throwable.AuraError;
+import org.auraframework.util.text.GlobMatcher;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
@@ -40,10 +43,16 @@ import com.google.common.collect.Sets;
  * A specialized trie-ish structure for storing which registry gurgles which defs
  */
 public class RegistryTrie implements RegistrySet {
+    /** Number of non-constant filters to remember the registries for */
+    private static final int MATCHED_CACHE_SIZE = 256;
 
     private final Collection<DefRegistry> allRegistries;
     private final String stringValue;
 
+    // registries matched by filters with a pattern for the prefix or namespace, by prefix, namespace and types
+    private final Cache<String, Collection<DefRegistry>> matchedRegistries = CacheBuilder.newBuilder()
+            .maximumSize(MATCHED_CACHE_SIZE).build();
+
     // a map of map of maps
     private final Map<DefType, Map<String, PrefixNode>> root = new EnumMap<>(DefType.class);
     
@@ -91,9 +100,68 @@ public class RegistryTrie implements RegistrySet {
      * 
      * Note that this ignores the type of the registry, and uses only the prefix
      * and namespace.
+     *
+     * A constant namespace, with a constant prefix or any prefix, is looked up in the trie, the same as
+     * {@link #getRegistryFor(DefDescriptor)}. Any other filter is matched against all
+     * of the registries once and remembered. The name is not used to match registries, so
+     * filters that only differ by name share the result.
      */
     @Override
     public Collection<DefRegistry> getRegistries(DescriptorFilter matcher) {
+        GlobMatcher prefixMatch = matcher.getPrefixMatch();
+        GlobMatcher namespaceMatch = matcher.getNamespaceMatch();
+        if ((prefixMatch.isConstant() || prefixMatch.isAll()) && namespaceMatch.isConstant()) {
+            return findRegistries(prefixMatch.isAll() ? null : prefixMatch.toString().toLowerCase(),
+                    namespaceMatch.toString(), matcher.getDefTypes());
+        }
+        List<DefType> defTypes = matcher.getDefTypes();
+        String key = prefixMatch + "://" + namespaceMatch + (defTypes == null ? "(any)" : defTypes.toString());
+        Collection<DefRegistry> matched = matchedRegistries.getIfPresent(key);
+        if (matched == null) {
+            matched = matchRegistries(matcher);
+            matchedRegistries.put(key, matched);
+        }
+        return matched;
+    }
+
+    /**
+     * Look up the registries for a prefix (null for all of them) and namespace, including the catch all registries.
+     */
+    private Collection<DefRegistry> findRegistries(String prefix, String namespace, List<DefType> defTypes) {
+        Set<DefRegistry> matched = Sets.newHashSet();
+        if (defTypes == null) {
+            for (Map<String, PrefixNode> dtn : this.root.values()) {
+                findRegistries(dtn, prefix, namespace, matched);
+            }
+        } else {
+            for (DefType defType : defTypes) {
+                Map<String, PrefixNode> dtn = this.root.get(defType);
+                if (dtn != null) {
+                    findRegistries(dtn, prefix, namespace, matched);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(matched);
+    }
+
+    private void findRegistries(Map<String, PrefixNode> dtn, String prefix, String namespace,
+            Set<DefRegistry> matched) {
+        if (prefix == null) {
+            for (PrefixNode pn : dtn.values()) {
+                pn.collect(namespace, matched);
+            }
+            return;
+        }
+        PrefixNode pn = dtn.get(prefix);
+        if (pn != null) {
+            pn.collect(namespace, matched);
+        }
+    }
+
+    /**
+     * Match all of the registries against the patterns in a filter.
+     */
+    private Collection<DefRegistry> matchRegistries(DescriptorFilter matcher) {
         Set<DefRegistry> matched = Sets.newHashSet();
 
         for (DefRegistry reg : this.allRegistries) {
@@ -129,7 +197,7 @@ public class RegistryTrie implements RegistrySet {
                 }
             }
         }
-        return matched;
+        return Collections.unmodifiableSet(matched);
     }
 
     @Override
@@ -166,9 +234,16 @@ public class RegistryTrie implements RegistrySet {
         public PrefixNode() {
         }
 
+        private static final String[] CASE_SENSITIVE_NAMESPACES = { "SocialService", "ONE" };
+
         private String getNamespaceKey(String namespace) {
             // W-3676967: temporarily allow a case-sensitive "duplicate" namespace, should be lower-cased otherwise
-            return ("SocialService".equals(namespace) || "ONE".equals(namespace)) ? namespace : namespace.toLowerCase();
+            for (String caseSensitive : CASE_SENSITIVE_NAMESPACES) {
+                if (caseSensitive.equals(namespace)) {
+                    return namespace;
+                }
+            }
+            return namespace.toLowerCase();
         }
 
         public void put(String namespace, DefRegistry registry) {
@@ -190,5 +265,26 @@ public class RegistryTrie implements RegistrySet {
             }
             return reg;
         }
+
+        /**
+         * Add every registry with a namespace that matches, ignoring case, and the catch all.
+         */
+        public void collect(String ns, Set<DefRegistry> matched) {
+            DefRegistry reg = this.registries.get(ns.toLowerCase());
+            if (reg != null) {
+                matched.add(reg);
+            }
+            for (String caseSensitive : CASE_SENSITIVE_NAMESPACES) {
+                if (caseSensitive.equalsIgnoreCase(ns)) {
+                    reg = this.registries.get(caseSensitive);
+                    if (reg != null) {
+                        matched.add(reg);
+                    }
+                }
+            }
+            if (this.catchAllRegistry != null) {
+                matched.add(this.catchAllRegistry);
+            }
+        }
     }
 }
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.auraframework.adapter.LocalizationAdapter;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+public class LabelCacheTest {
+
+    LocalizationAdapter mockLocalizationAdapter;
+    LabelCache labelCache;
+
+    @Before
+    public void setUp() {
+        mockLocalizationAdapter = mock(LocalizationAdapter.class);
+        labelCache = new LabelCache(null, 100);
+    }
+
+    @Test
+    public void testGetLabelLoadsOnce() {
+        when(mockLocalizationAdapter.getLabel(eq("section"), eq("name"))).thenReturn("&copy; label");
+
+        assertEquals("© label", labelCache.getLabel("en_US", "section", "name", mockLocalizationAdapter));
+        assertEquals("© label", labelCache.getLabel("en_US", "section", "name", mockLocalizationAdapter));
+
+        verify(mockLocalizationAdapter, times(1)).getLabel(eq("section"), eq("name"));
+    }
+
+    @Test
+    public void testGetLabelIsKeyedByLocale() {
+        when(mockLocalizationAdapter.getLabel(eq("section"), eq("name"))).thenReturn("label");
+
+        labelCache.getLabel("en_US", "section", "name", mockLocalizationAdapter);
+        labelCache.getLabel("fr", "section", "name", mockLocalizationAdapter);
+
+        verify(mockLocalizationAdapter, times(2)).getLabel(eq("section"), eq("name"));
+    }
+
+    @Test
+    public void testGetLabelDoesNotCacheMissingLabels() {
+        assertNull(labelCache.getLabel("en_US", "section", "name", mockLocalizationAdapter));
+        assertNull(labelCache.getLabel("en_US", "section", "name", mockLocalizationAdapter));
+
+        verify(mockLocalizationAdapter, times(2)).getLabel(eq("section"), eq("name"));
+    }
+
+    @Test
+    public void testGetLabelsOnlyLoadsMisses() {
+        Map<String, Map<String, String>> loaded = Maps.newHashMap();
+        loaded.put("section", new HashMap<>(ImmutableMap.of("name2", "label2")));
+        when(mockLocalizationAdapter.getLabel(eq("section"), eq("name1"))).thenReturn("label1");
+        when(mockLocalizationAdapter.getLabels(Matchers.<Map<String, Set<String>>> any())).thenReturn(loaded);
+
+        labelCache.getLabel("en_US", "section", "name1", mockLocalizationAdapter);
+        Map<String, Map<String, String>> actual = labelCache.getLabels("en_US",
+                ImmutableMap.<String, Set<String>>of("section", ImmutableSet.of("name1", "name2")),
+                mockLocalizationAdapter);
+
+        assertEquals(ImmutableMap.of("name1", "label1", "name2", "label2"), actual.get("section"));
+        verify(mockLocalizationAdapter).getLabels(
+                eq(ImmutableMap.<String, Set<String>>of("section", ImmutableSet.of("name2"))));
+    }
+
+    @Test
+    public void testInvalidateSection() {
+        when(mockLocalizationAdapter.getLabel(Matchers.anyString(), Matchers.anyString())).thenReturn("label");
+
+        labelCache.getLabel("en_US", "section1", "name", mockLocalizationAdapter);
+        labelCache.getLabel("en_US", "section2", "name", mockLocalizationAdapter);
+        labelCache.invalidateSection("section1");
+        labelCache.getLabel("en_US", "section1", "name", mockLocalizationAdapter);
+        labelCache.getLabel("en_US", "section2", "name", mockLocalizationAdapter);
+
+        verify(mockLocalizationAdapter, times(2)).getLabel(eq("section1"), eq("name"));
+        verify(mockLocalizationAdapter, times(1)).getLabel(eq("section2"), eq("name"));
+    }
+}
@@ -20,17 +20,20 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
 import org.auraframework.adapter.LocalizationAdapter;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.service.DefinitionService;
+import org.auraframework.util.AuraLocale;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -131,4 +134,40 @@ public class LabelValueProviderTest {
         verify(mockLocalizationAdapter, never()).getLabels(Matchers.<Map<String, Set<String>>> any());
         assertEquals(expected, actual);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLoadValuesUsesSharedCacheAcrossProviders() {
+        // Arrange
+        String section = "section";
+        String name = "label1";
+        String expected = "This is a label";
+
+        Map<String, Map<String, String>> labels = new HashMap<>();
+        Map<String, String> nameToValue = new HashMap<>();
+        nameToValue.put(name, expected);
+        labels.put(section, nameToValue);
+
+        AuraLocale auraLocale = mock(AuraLocale.class);
+        when(auraLocale.getLanguageLocale()).thenReturn(Locale.US);
+        when(mockLocalizationAdapter.getAuraLocale()).thenReturn(auraLocale);
+        when(mockLocalizationAdapter.getLabels(Matchers.<Map<String, Set<String>>> any())).thenReturn(labels);
+
+        LabelCache labelCache = new LabelCache(null, 100);
+
+        PropertyReference propertyReference = mock(PropertyReference.class);
+        when(propertyReference.size()).thenReturn(2);
+        when(propertyReference.getList()).thenReturn(Arrays.asList(section, name));
+        Set<PropertyReference> keys = new HashSet<>(Arrays.asList(propertyReference));
+
+        // Act
+        new LabelValueProvider(mockLocalizationAdapter, mockDefinitionService, labelCache).loadValues(keys);
+        LabelValueProvider provider = new LabelValueProvider(mockLocalizationAdapter, mockDefinitionService, labelCache);
+        provider.loadValues(keys);
+
+        // Assert
+        verify(mockLocalizationAdapter, times(1)).getLabels(Matchers.<Map<String, Set<String>>> any());
+        Map<String, String> nameValuePair = (Map<String, String>)provider.getData().get(section);
+        assertEquals(expected, nameValuePair.get(name));
+    }
 }
@@ -23,6 +23,7 @@ import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.EmptyStackException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
@@ -33,7 +34,9 @@ import org.apache.http.HttpStatus;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExceptionAdapter;
 import org.auraframework.clientlibrary.ClientLibraryService;
+import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.ClientLibraryDef;
+import org.auraframework.def.DefDescriptor;
 import org.auraframework.http.ManifestUtil;
 import org.auraframework.instance.InstanceStack;
 import org.auraframework.service.CSPInliningService;
@@ -44,6 +47,7 @@ import org.auraframework.service.SerializationService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.throwable.ClientOutOfSyncException;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -184,6 +188,108 @@ public class ServletUtilAdapterImplUnitTest {
         Mockito.verify(contextService, Mockito.times(1)).endContext();
     }
 
+    @Test
+    public void testCheckNotModifiedMatchesETag() throws Exception {
+        ServletUtilAdapterImpl adapter = new ServletUtilAdapterImpl();
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"other\", W/\"tag\"");
+
+        Assert.assertTrue(adapter.checkNotModified(request, response, "\"tag\""));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        Assert.assertEquals("\"tag\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testCheckNotModifiedIgnoresOtherETag() throws Exception {
+        ServletUtilAdapterImpl adapter = new ServletUtilAdapterImpl();
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"other\"");
+
+        Assert.assertFalse(adapter.checkNotModified(request, response, "\"tag\""));
+        Assert.assertFalse(adapter.checkNotModified(request, response, null));
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assert.assertNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testCheckNotModifiedComparesWeakly() throws Exception {
+        ServletUtilAdapterImpl adapter = new ServletUtilAdapterImpl();
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"tag\"");
+
+        Assert.assertTrue(adapter.checkNotModified(request, response, "W/\"tag\""));
+        Assert.assertEquals("W/\"tag\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testVerifyTopLevelChecksUidBeforeNotModified() throws Exception {
+        ServletUtilAdapterImpl adapter = new ServletUtilAdapterImpl();
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        DefinitionService definitionService = Mockito.mock(DefinitionService.class);
+        AuraContext context = Mockito.mock(AuraContext.class);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        DefDescriptor<ApplicationDef> appDesc = Mockito.mock(DefDescriptor.class);
+        adapter.setConfigAdapter(configAdapter);
+        adapter.setDefinitionService(definitionService);
+        Mockito.when(configAdapter.getAuraFrameworkNonce()).thenReturn("fwuid");
+        Mockito.when(context.getMode()).thenReturn(Mode.PROD);
+        Mockito.doReturn(appDesc).when(context).getApplicationDescriptor();
+        Mockito.when(context.getUid(appDesc)).thenReturn("staleUid");
+        Mockito.when(request.getRequestURI()).thenReturn("/l/staleUid/app.js");
+        Mockito.when(request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE)).thenReturn(-1L);
+        Mockito.when(request.getHeader(HttpHeaders.IF_NONE_MATCH))
+                .thenReturn(adapter.getResourceETag(request, context));
+        Mockito.doThrow(new ClientOutOfSyncException("stale")).when(definitionService).updateLoaded(appDesc);
+        Mockito.when(definitionService.getUid(null, appDesc)).thenReturn("currentUid");
+
+        adapter.verifyTopLevel(request, response, context);
+
+        Assert.assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        Assert.assertNull(response.getHeader(HttpHeaders.ETAG));
+        Mockito.verify(definitionService).getDependencies("currentUid");
+    }
+
+    @Test
+    public void testResourceETagChangesWithUrl() throws Exception {
+        ServletUtilAdapterImpl adapter = new ServletUtilAdapterImpl();
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        AuraContext context = Mockito.mock(AuraContext.class);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        adapter.setConfigAdapter(configAdapter);
+        Mockito.when(configAdapter.getAuraFrameworkNonce()).thenReturn("fwuid");
+        Mockito.when(context.getMode()).thenReturn(Mode.PROD);
+        Mockito.when(request.getRequestURI()).thenReturn("/l/appUid1/app.js");
+
+        String etag = adapter.getResourceETag(request, context);
+        Assert.assertTrue(etag, etag.startsWith("W/\"") && etag.endsWith("\""));
+        Assert.assertEquals(etag, adapter.getResourceETag(request, context));
+
+        Mockito.when(request.getRequestURI()).thenReturn("/l/appUid2/app.js");
+        Assert.assertNotEquals(etag, adapter.getResourceETag(request, context));
+    }
+
+    @Test
+    public void testResourceETagChangesWithRequestedLocales() throws Exception {
+        ServletUtilAdapterImpl adapter = new ServletUtilAdapterImpl();
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        AuraContext context = Mockito.mock(AuraContext.class);
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        adapter.setConfigAdapter(configAdapter);
+        Mockito.when(configAdapter.getAuraFrameworkNonce()).thenReturn("fwuid");
+        Mockito.when(context.getMode()).thenReturn(Mode.PROD);
+        Mockito.when(request.getRequestURI()).thenReturn("/auraCmpDef");
+        Mockito.when(context.getRequestedLocales()).thenReturn(Arrays.asList(Locale.ENGLISH));
+
+        String etag = adapter.getResourceETag(request, context);
+
+        Mockito.when(context.getRequestedLocales()).thenReturn(Arrays.asList(Locale.FRENCH));
+        Assert.assertNotEquals(etag, adapter.getResourceETag(request, context));
+    }
+
     @Test
     public void testSend404() throws Exception {
         ServletUtilAdapterImpl sua = new ServletUtilAdapterImpl();
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.InterfaceDef;
+import org.auraframework.def.module.ModuleDef;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.util.json.JsonEncoder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class AuraContextJsonSerializerTest {
+    private ConfigAdapter configAdapter;
+    private DefinitionService definitionService;
+    private DefDescriptor<ApplicationDef> appDesc;
+    private AuraContextImpl context;
+    private AuraContextJsonSerializer serializer;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        configAdapter = Mockito.mock(ConfigAdapter.class);
+        Mockito.when(configAdapter.uriAddressableDefsEnabled()).thenReturn(true);
+        Mockito.when(configAdapter.getModuleNamespaceAliases()).thenReturn(Collections.emptyMap());
+
+        appDesc = Mockito.mock(DefDescriptor.class);
+        Mockito.when(appDesc.getDefType()).thenReturn(DefType.APPLICATION);
+        Mockito.when(appDesc.getNamespace()).thenReturn("test");
+        Mockito.when(appDesc.getName()).thenReturn("app");
+        Mockito.when(appDesc.getQualifiedName()).thenReturn("markup://test:app");
+
+        DefDescriptor<ModuleDef> service = Mockito.mock(DefDescriptor.class);
+        Mockito.when(service.getQualifiedName()).thenReturn("markup://test:service");
+        ApplicationDef appDef = Mockito.mock(ApplicationDef.class);
+        Mockito.when(appDef.getModuleServices()).thenReturn(ImmutableSet.of(service));
+
+        definitionService = Mockito.mock(DefinitionService.class);
+        Mockito.when(definitionService.getDefinition(appDesc)).thenReturn(appDef);
+        Mockito.when(definitionService.hasInterface(Matchers.any(), Matchers.any())).thenReturn(false);
+        Mockito.when(definitionService.getUid(null, appDesc)).thenReturn("appUid");
+
+        context = Mockito.mock(AuraContextImpl.class);
+        Mockito.when(context.getMode()).thenReturn(Mode.PROD);
+        Mockito.when(context.getFrameworkUID()).thenReturn("fwuid");
+        Mockito.when(context.getContextPath()).thenReturn("");
+        Mockito.doReturn(appDesc).when(context).getApplicationDescriptor();
+        Mockito.when(context.getLoaded()).thenReturn(ImmutableMap.<DefDescriptor<?>, String>of(appDesc, "appUid"));
+        Mockito.when(context.getClientLoaded()).thenReturn(Collections.emptyMap());
+        Mockito.when(context.getGlobalProviders()).thenReturn(Collections.emptyMap());
+        Mockito.when(context.filterLocalDefs(Matchers.any())).thenReturn(
+                Collections.<DefDescriptor<? extends Definition>, Definition>emptyMap());
+
+        serializer = new AuraContextJsonSerializer(configAdapter, null, definitionService);
+    }
+
+    private String serialize() throws Exception {
+        return serialize(serializer, false);
+    }
+
+    private String serialize(AuraContextJsonSerializer serializer, boolean format) throws Exception {
+        StringBuilder sb = new StringBuilder();
+        JsonEncoder json = new JsonEncoder(sb, format);
+        serializer.serialize(json, context);
+        return sb.toString();
+    }
+
+    @Test
+    public void testApplicationPartsAreComputedOnce() throws Exception {
+        String first = serialize();
+        String second = serialize();
+
+        assertEquals(first, second);
+        assertTrue("Expected services in " + first, first.contains("\"services\":[\"markup://test:service\"]"));
+        assertTrue("Expected app in " + first, first.contains("\"app\":\"test:app\""));
+        Mockito.verify(definitionService, Mockito.times(1)).getDefinition(appDesc);
+        Mockito.verify(definitionService, Mockito.times(1)).hasInterface(Matchers.any(), Matchers.any());
+    }
+
+    @Test
+    public void testApplicationPartsFollowApplicationUid() throws Exception {
+        serialize();
+        Mockito.when(definitionService.getUid(null, appDesc)).thenReturn("newUid");
+        serialize();
+
+        Mockito.verify(definitionService, Mockito.times(2)).getDefinition(appDesc);
+    }
+
+    @Test
+    public void testApplicationPartsIgnoreClientUid() throws Exception {
+        serialize();
+        Map<DefDescriptor<?>, String> loaded = ImmutableMap.<DefDescriptor<?>, String>of(appDesc, "forgedUid");
+        Mockito.when(context.getLoaded()).thenReturn(loaded);
+        serialize();
+        Mockito.when(context.getLoaded()).thenReturn(Collections.emptyMap());
+        serialize();
+
+        Mockito.verify(definitionService, Mockito.times(1)).getDefinition(appDesc);
+    }
+
+    @Test
+    public void testApplicationPartsAreNotCachedWithoutUid() throws Exception {
+        Mockito.when(definitionService.getUid(null, appDesc)).thenReturn(null);
+        serialize();
+        serialize();
+
+        Mockito.verify(definitionService, Mockito.times(2)).getDefinition(appDesc);
+    }
+
+    @Test
+    public void testUriDefinitionsDisabledByInterface() throws Exception {
+        Mockito.when(definitionService.hasInterface(Matchers.any(), Matchers.any())).thenReturn(true);
+        Mockito.when(definitionService.getDefDescriptor("aura:uriDefinitionsDisabled", InterfaceDef.class))
+                .thenReturn(null);
+
+        String first = serialize();
+        String second = serialize();
+
+        assertEquals(first, second);
+        assertTrue("Did not expect uri definitions in " + first, !first.contains("\"uad\""));
+    }
+
+    @Test
+    public void testCachedFragmentsMatchFreshOutput() throws Exception {
+        String compact = serialize(serializer, false);
+        String formatted = serialize(serializer, true);
+
+        AuraContextJsonSerializer fresh = new AuraContextJsonSerializer(configAdapter, null, definitionService);
+        assertEquals(serialize(fresh, true), serialize(serializer, true));
+        assertEquals(compact, serialize(serializer, false));
+        assertEquals(formatted, serialize(serializer, true));
+        assertTrue("Expected the app entry after the mode in " + compact,
+                compact.startsWith("{\"mode\":\"PROD\",\"app\":\"test:app\","));
+    }
+}
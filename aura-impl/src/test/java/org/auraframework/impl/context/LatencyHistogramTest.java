@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.auraframework.def.ActionDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.instance.Action;
+import org.auraframework.service.LoggingService;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanMicros());
+        assertEquals(0, histogram.getPercentileMicros(99));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(100000L); // 100us
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(50000000L); // 50ms
+        }
+        histogram.record(-1L);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(128, histogram.getPercentileMicros(50));
+        assertEquals(128, histogram.getPercentileMicros(90));
+        assertEquals(50000, histogram.getPercentileMicros(99));
+        assertEquals(50000, histogram.getMaxMicros());
+        assertEquals(5090, histogram.getMeanMicros());
+    }
+
+    @Test
+    public void testTimerRecordsOutermostStartStop() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LoggingContextImpl.Timer timer = new LoggingContextImpl.Timer("foo", histogram);
+
+        timer.start();
+        timer.start();
+        timer.stop();
+        assertEquals(0, histogram.getCount());
+        timer.stop();
+        assertEquals(1, histogram.getCount());
+
+        timer.start();
+        timer.stop();
+        assertEquals(2, histogram.getCount());
+    }
+
+    @Test
+    public void testContextRecordsTimersAndActions() throws Exception {
+        DefDescriptor<ActionDef> descriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.when(descriptor.getQualifiedName()).thenReturn("java://test.Controller/ACTION$run");
+        Action action = Mockito.mock(Action.class);
+        Mockito.when(action.getDescriptor()).thenReturn(descriptor);
+        String timerName = "latencyHistogramTest" + System.nanoTime();
+
+        LoggingContextImpl context = new LoggingContextImpl();
+        context.startAction("1$java://test.Controller/ACTION$run", action);
+        context.startTimer(timerName);
+        context.stopTimer(timerName);
+        context.stopAction("1$java://test.Controller/ACTION$run");
+
+        LatencyHistogram timerHistogram = LatencyHistogram.getTimerHistograms().get(timerName);
+        assertNotNull(timerHistogram);
+        assertEquals(1, timerHistogram.getCount());
+        LatencyHistogram actionHistogram = LatencyHistogram.forAction(descriptor);
+        assertSame(actionHistogram, LatencyHistogram.getActionHistograms().get(descriptor));
+        assertEquals(1, actionHistogram.getCount());
+
+        StringBuilder dump = new StringBuilder();
+        LatencyHistogram.dump(dump);
+        assertTrue(dump.toString(), dump.toString().contains("timer " + timerName + ": count=1"));
+        assertTrue(dump.toString(), dump.toString().contains("action java://test.Controller/ACTION$run: count=1"));
+    }
+
+    @Test
+    public void testActionTimerByLoggedName() {
+        LoggingContextImpl context = new LoggingContextImpl();
+        context.startAction("1$java://test.Controller/ACTION$run", null);
+        context.stopAction("1$java://test.Controller/ACTION$run");
+
+        String name = LoggingService.TIMER_ACTION + "1$java://test.Controller/ACTION$run";
+        assertTrue(context.getTime(name) >= 0);
+        context.resetTimer(name);
+        assertEquals(-1, context.getTime(name));
+    }
+
+    @Test
+    public void testRequestTimerRecordedOncePerRequest() {
+        LoggingContextImpl context = new LoggingContextImpl();
+        LatencyHistogram histogram = LatencyHistogram.forTimer(LoggingService.TIMER_AURA_RUN);
+        long before = histogram.getCount();
+
+        // e.g. JavaModel stopping and restarting the timer around a getter.
+        context.startTimer(LoggingService.TIMER_AURA_RUN);
+        context.stopTimer(LoggingService.TIMER_AURA_RUN);
+        context.startTimer(LoggingService.TIMER_AURA_RUN);
+        context.stopTimer(LoggingService.TIMER_AURA_RUN);
+        assertEquals(before, histogram.getCount());
+
+        context.logRequestValues();
+        assertEquals(before + 1, histogram.getCount());
+    }
+}
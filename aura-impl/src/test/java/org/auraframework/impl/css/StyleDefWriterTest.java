@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.auraframework.adapter.StyleAdapter;
+import org.auraframework.css.StyleContext;
+import org.auraframework.def.BaseStyleDef;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Mode;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.salesforce.omakase.plugin.Plugin;
+
+public class StyleDefWriterTest {
+    private DefinitionService definitionService;
+    private StyleAdapter styleAdapter;
+    private AuraContext context;
+    private StyleContext styleContext;
+    private StyleCodeCache codeCache;
+    private BaseStyleDef cached;
+    private BaseStyleDef uncached;
+    private BaseStyleDef notCacheable;
+
+    @Before
+    public void setUp() throws Exception {
+        definitionService = mock(DefinitionService.class);
+        styleAdapter = mock(StyleAdapter.class);
+        context = mock(AuraContext.class);
+        styleContext = mock(StyleContext.class);
+        codeCache = mock(StyleCodeCache.class);
+        cached = mock(BaseStyleDef.class);
+        uncached = mock(BaseStyleDef.class);
+        notCacheable = mock(BaseStyleDef.class);
+
+        doReturn(ImmutableList.<Plugin>of()).when(styleAdapter).getContextualRuntimePlugins();
+        doReturn(true).when(styleAdapter).canRenderWithoutContextualPlugins(any(), anyListOf(Plugin.class));
+        doReturn(styleContext).when(context).getStyleContext();
+        doReturn(Mode.PROD).when(context).getMode();
+
+        doReturn("cachedKey").when(codeCache).getKey(eq(cached), eq(styleContext), anyBoolean(), anyBoolean());
+        doReturn("uncachedKey").when(codeCache).getKey(eq(uncached), eq(styleContext), anyBoolean(), anyBoolean());
+        doReturn(null).when(codeCache).getKey(eq(notCacheable), eq(styleContext), anyBoolean(), anyBoolean());
+        doReturn(".cached{}").when(codeCache).get("cachedKey");
+
+        doReturn(".uncached{}").when(uncached).getCode(anyListOf(Plugin.class));
+        doReturn(".notCacheable{}").when(notCacheable).getCode(anyListOf(Plugin.class));
+    }
+
+    @Test
+    public void testCachedStylesheetsAreNotRendered() throws Exception {
+        StringBuilder out = new StringBuilder();
+
+        new StyleDefWriter(definitionService, styleAdapter, context, codeCache, false)
+                .writeStyleDefs(ImmutableList.of(cached, uncached, notCacheable), out);
+
+        assertEquals(".cached{}.uncached{}.notCacheable{}", out.toString());
+        verify(cached, never()).getCode(anyListOf(Plugin.class));
+        verify(codeCache).put("uncachedKey", ".uncached{}");
+        verify(codeCache, never()).put(any(), eq(".notCacheable{}"));
+    }
+
+    @Test
+    public void testMissesRenderedOnExecutorKeepOrder() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        doReturn(executor).when(codeCache).getExecutor(context);
+        StringBuilder out = new StringBuilder();
+
+        try {
+            new StyleDefWriter(definitionService, styleAdapter, context, codeCache, false)
+                    .writeStyleDefs(ImmutableList.of(uncached, notCacheable, cached), out);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(".uncached{}.notCacheable{}.cached{}", out.toString());
+        verify(codeCache).put("uncachedKey", ".uncached{}");
+    }
+
+    @Test
+    public void testWithoutCacheRendersEverything() throws Exception {
+        doReturn(".cached{}").when(cached).getCode(anyListOf(Plugin.class));
+        StringBuilder out = new StringBuilder();
+
+        new StyleDefWriter(definitionService, styleAdapter, context)
+                .writeStyleDefs(ImmutableList.of(cached, uncached), out);
+
+        assertEquals(".cached{}.uncached{}", out.toString());
+        verify(cached).getCode(anyListOf(Plugin.class));
+    }
+
+    @Test
+    public void testStylesheetsNeedingContextualPluginsAreRenderedInOrder() throws Exception {
+        Plugin contextual = mock(Plugin.class);
+        ImmutableList<Plugin> plugins = ImmutableList.of(contextual);
+        doReturn(plugins).when(styleAdapter).getContextualRuntimePlugins();
+        doReturn(false).when(styleAdapter).canRenderWithoutContextualPlugins(eq(uncached), anyListOf(Plugin.class));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        doReturn(executor).when(codeCache).getExecutor(context);
+        StringBuilder out = new StringBuilder();
+
+        try {
+            new StyleDefWriter(definitionService, styleAdapter, context, codeCache, false)
+                    .writeStyleDefs(ImmutableList.of(uncached, cached), out);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(".uncached{}.cached{}", out.toString());
+        verify(uncached).getCode(plugins);
+        verify(codeCache, never()).getKey(eq(uncached), any(), anyBoolean(), anyBoolean());
+        verify(codeCache, never()).put(any(), any());
+    }
+}
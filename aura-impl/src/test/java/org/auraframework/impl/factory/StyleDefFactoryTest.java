@@ -18,6 +18,7 @@ package org.auraframework.impl.factory;
 import javax.inject.Inject;
 
 import org.auraframework.def.StyleDef;
+import org.auraframework.impl.css.style.AbstractStyleDef;
 import org.auraframework.impl.AuraImplTestCase;
 import org.auraframework.impl.factory.StyleParser.WithValidation;
 import org.auraframework.impl.factory.StyleParser.WithoutValidation;
@@ -161,6 +162,20 @@ public class StyleDefFactoryTest extends AuraImplTestCase {
                 expected.getMessage().contains(expectedMessage));
     }
 
+    @Test
+    public void testRuntimeInvariantWithoutConditionalsOrUrls() throws Exception {
+        assertTrue(isRuntimeInvariant(".THIS .stackOrder { z-index: 100; }"));
+        assertFalse(isRuntimeInvariant("@if (FIREFOX) { .THIS .stackOrder { z-index: 200; } }"));
+        assertFalse(isRuntimeInvariant(".THIS { background: url('/auraFW/resources/img.png'); }"));
+    }
+
+    private boolean isRuntimeInvariant(String css) throws Exception {
+        AuraTestingUtil util = getAuraTestingUtil();
+        TextSource<StyleDef> source = util.buildTextSource(util.getInternalNamespace(), StyleDef.class, css);
+        StyleDef def = withValidation.getDefinition(source.getDescriptor(), source);
+        return ((AbstractStyleDef<?>) def).isRuntimeInvariant();
+    }
+
     /*
 	[1] Invalid conditional argument
 	Error: Issue(s) found by Parser:Unknown conditional: [OPERA]. 
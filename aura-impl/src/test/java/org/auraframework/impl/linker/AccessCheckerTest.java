@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.linker;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.Definition;
+import org.auraframework.def.DefinitionAccess;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+public class AccessCheckerTest {
+    @Mock
+    private ConfigAdapter configAdapter;
+
+    @Mock
+    private DefinitionAccess access;
+
+    @Before
+    public void initMocks() {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(access.requiresAuthentication()).thenReturn(true);
+        Mockito.when(configAdapter.isInternalNamespace("internal")).thenReturn(true);
+    }
+
+    @Test
+    public void testNamespaceChangeIsSeen() {
+        AccessChecker checker = new AccessChecker(configAdapter);
+        Definition def = mockDefinition(mockDescriptor("target", "cmp"));
+        DefDescriptor<?> referencing = mockDescriptor("custom", "one");
+
+        Assert.assertFalse(checker.checkAccess(referencing, def, null));
+
+        // e.g. addInternalNamespace, or a test context with local definitions in the namespace
+        Mockito.when(configAdapter.isInternalNamespace("custom")).thenReturn(true);
+        Assert.assertTrue(checker.checkAccess(referencing, def, null));
+
+        Mockito.when(configAdapter.isInternalNamespace("custom")).thenReturn(false);
+        Assert.assertFalse(checker.checkAccess(referencing, def, null));
+    }
+
+    @Test
+    public void testNamespaceChangeIsSeenWithContextCache() {
+        AccessChecker checker = new AccessChecker(configAdapter);
+        Definition def = mockDefinition(mockDescriptor("target", "cmp"));
+        DefDescriptor<?> referencing = mockDescriptor("custom", "one");
+        Map<String, String> accessCheckCache = new HashMap<>();
+
+        Assert.assertFalse(checker.checkAccess(referencing, def, accessCheckCache));
+        Assert.assertEquals(1, accessCheckCache.size());
+
+        Mockito.when(configAdapter.isInternalNamespace("custom")).thenReturn(true);
+        Assert.assertTrue(checker.checkAccess(referencing, def, accessCheckCache));
+    }
+
+    @Test
+    public void testTargetIsSharedAcrossContexts() {
+        AccessChecker checker = new AccessChecker(configAdapter, 16);
+        DefDescriptor<?> desc = mockDescriptor("target", "cmp");
+        Definition def = mockDefinition(desc);
+        Mockito.when(def.getOwnHash()).thenReturn("uid1");
+
+        checker.checkAccess(mockDescriptor("custom", "one"), def, new HashMap<>());
+        checker.checkAccess(mockDescriptor("custom", "one"), def, new HashMap<>());
+        Mockito.verify(desc, Mockito.times(1)).getName();
+
+        // a changed definition has a new UID
+        Definition changed = mockDefinition(desc);
+        Mockito.when(changed.getOwnHash()).thenReturn("uid2");
+        checker.checkAccess(mockDescriptor("custom", "one"), changed, new HashMap<>());
+        Mockito.verify(desc, Mockito.times(2)).getName();
+    }
+
+    @Test
+    public void testInternalNamespaceIsAllowed() {
+        AccessChecker checker = new AccessChecker(configAdapter);
+        Definition def = mockDefinition(mockDescriptor("target", "cmp"));
+
+        Assert.assertTrue(checker.checkAccess(mockDescriptor("internal", "one"), def, null));
+        Assert.assertNull(checker.getAccessMessage(mockDescriptor("internal", "two"), def, null));
+    }
+
+    @Test
+    public void testDenialMessageNamesEachReference() {
+        AccessChecker checker = new AccessChecker(configAdapter);
+        Definition def = mockDefinition(mockDescriptor("target", "cmp"));
+
+        String first = checker.getAccessMessage(mockDescriptor("custom", "one"), def, null);
+        String second = checker.getAccessMessage(mockDescriptor("custom", "two"), def, null);
+
+        Assert.assertTrue(first, first.contains("'target:cmp'") && first.contains("custom:one"));
+        Assert.assertTrue(second, second.contains("'target:cmp'") && second.contains("custom:two"));
+    }
+
+    private Definition mockDefinition(DefDescriptor<?> desc) {
+        Definition def = Mockito.mock(Definition.class);
+        Mockito.when(def.getAccess()).thenReturn(access);
+        Mockito.<DefDescriptor<?>>when(def.getDescriptor()).thenReturn(desc);
+        return def;
+    }
+
+    private DefDescriptor<?> mockDescriptor(String namespace, String name) {
+        DefDescriptor<?> desc = Mockito.mock(DefDescriptor.class);
+        Mockito.when(desc.getPrefix()).thenReturn("markup");
+        Mockito.when(desc.getNamespace()).thenReturn(namespace);
+        Mockito.when(desc.getName()).thenReturn(name);
+        Mockito.when(desc.getDefType()).thenReturn(DefType.COMPONENT);
+        Mockito.when(desc.toString()).thenReturn("markup://" + namespace + ":" + name);
+        return desc;
+    }
+}
@@ -22,6 +22,11 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.cache.Cache;
@@ -378,16 +383,32 @@ public class AuraLinkerTest {
     }
 
     private AuraLinker getPopulatedLinker(List<TestDef> definitions, TestDef root) {
+        return getPopulatedLinker(definitions, root, false);
+    }
+
+    private AuraLinker getPopulatedLinker(List<TestDef> definitions, TestDef root, boolean prefetch) {
+        return getPopulatedLinker(new StaticDefRegistryImpl(Sets.newHashSet(), Sets.newHashSet(), Sets.newHashSet(),
+                definitions), root, prefetch);
+    }
+
+    private AuraLinker getPopulatedLinker(DefRegistry registry, TestDef root, boolean prefetch) {
         ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
         LoggingService loggingService = Mockito.mock(LoggingService.class);
         AccessChecker accessChecker = Mockito.mock(AccessChecker.class);
         RegistrySet registries = Mockito.mock(RegistrySet.class);
-        DefRegistry registry = new StaticDefRegistryImpl(Sets.newHashSet(), Sets.newHashSet(), Sets.newHashSet(),
-                definitions);
         Mockito.doReturn(registry).when(registries).getRegistryFor(Matchers.any());
         AuraLocalStore localStore = Mockito.mock(AuraLocalStore.class);
         @SuppressWarnings("unchecked")
         Cache<DefDescriptor<?>, Optional<? extends Definition>> defsCache = Mockito.mock(Cache.class);
+        if (prefetch) {
+            return new AuraLinker(root.getDescriptor(), defsCache,
+                    loggingService, configAdapter, accessChecker, localStore, null, registries, null, null) {
+                @Override
+                protected boolean shouldPrefetch(DefRegistry defRegistry) {
+                    return true;
+                }
+            };
+        }
         return new AuraLinker(root.getDescriptor(), defsCache,
                 loggingService, configAdapter, accessChecker, localStore, null, registries, null, null);
     }
@@ -506,4 +527,117 @@ public class AuraLinkerTest {
 
         Assert.assertEquals(leveledBase, leveled);
     }
+
+    @Test
+    public void testPrefetchKeepsLinkOrder() throws Exception {
+        TestDef application = new TestDef("application");
+        TestDef template = new TestDef("template");
+        TestDef component = new TestDef("component");
+        TestDef html = new TestDef("html");
+
+        application.addDependent(component.getDescriptor());
+        application.addDependent(template.getDescriptor());
+
+        component.addDependent(template.getDescriptor());
+
+        template.addDependent(html.getDescriptor());
+        template.addDependent(component.getDescriptor());
+
+        List<TestDef> definitions = Lists.newArrayList();
+        definitions.add(application);
+        definitions.add(template);
+        definitions.add(component);
+        definitions.add(html);
+
+        AuraLinker linker = getPopulatedLinker(definitions, application);
+        linker.linkDefinition(application.getDescriptor(), false);
+        String verifiedBase = buildLinkedString("VERIFY SORT", linker.getNameSort());
+        String leveledBase = buildLinkedString("LEVEL SORT", linker.getDepthSort());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger tasks = new AtomicInteger();
+        try {
+            linker = getPopulatedLinker(definitions, application, true);
+            linker.setPrefetchExecutor(task -> {
+                tasks.incrementAndGet();
+                executor.execute(task);
+            });
+            linker.linkDefinition(application.getDescriptor(), false);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(4, tasks.get());
+        Assert.assertEquals(verifiedBase, buildLinkedString("VERIFY SORT", linker.getNameSort()));
+        Assert.assertEquals(leveledBase, buildLinkedString("LEVEL SORT", linker.getDepthSort()));
+    }
+
+    @Test(timeout = 10000)
+    public void testLinkOnPrefetchThreadDoesNotPrefetch() throws Exception {
+        TestDef application = new TestDef("application");
+        TestDef component = new TestDef("component");
+        TestDef html = new TestDef("html");
+
+        application.addDependent(component.getDescriptor());
+        component.addDependent(html.getDescriptor());
+
+        List<TestDef> definitions = Lists.newArrayList(application, component, html);
+        DefRegistry registry = Mockito.spy(new StaticDefRegistryImpl(Sets.newHashSet(), Sets.newHashSet(),
+                Sets.newHashSet(), definitions));
+
+        // a single thread, so a nested link that queued work behind itself and waited for it would never finish.
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger tasks = new AtomicInteger();
+        Executor prefetchExecutor = task -> {
+            tasks.incrementAndGet();
+            executor.execute(task);
+        };
+        AtomicBoolean nestedLinked = new AtomicBoolean();
+        Mockito.doAnswer(invocation -> {
+            if (nestedLinked.compareAndSet(false, true)) {
+                AuraLinker nested = getPopulatedLinker(definitions, component, true);
+                nested.setPrefetchExecutor(prefetchExecutor);
+                nested.linkDefinition(component.getDescriptor(), false);
+            }
+            return invocation.callRealMethod();
+        }).when(registry).getDef(Matchers.any());
+
+        try {
+            AuraLinker linker = getPopulatedLinker(registry, application, true);
+            linker.setPrefetchExecutor(prefetchExecutor);
+            linker.linkDefinition(application.getDescriptor(), false);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertTrue(nestedLinked.get());
+        Assert.assertEquals(3, tasks.get());
+    }
+
+    @Test(timeout = 10000)
+    public void testSkippedPrefetchIsBuiltByLink() throws Exception {
+        TestDef application = new TestDef("application");
+        TestDef component = new TestDef("component");
+
+        application.addDependent(component.getDescriptor());
+
+        List<TestDef> definitions = Lists.newArrayList(application, component);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger tasks = new AtomicInteger();
+        AuraLinker linker = getPopulatedLinker(definitions, application, true);
+        try {
+            // e.g. no context could be started for the task.
+            linker.setPrefetchExecutor(task -> {
+                tasks.incrementAndGet();
+                executor.execute(() -> AuraLinker.skipPrefetch(task));
+            });
+            linker.linkDefinition(application.getDescriptor(), false);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(1, tasks.get());
+        Assert.assertEquals(2, linker.getNameSort().size());
+    }
 }
@@ -99,6 +99,49 @@ public class CompilerServiceImplTest extends AuraImplTestCase {
         assertEquals("should compile a source with no factory", def, service.compile(descriptor, source));
     }
 
+    @Test
+    public void testMostSpecificFactoryMatch() throws Exception {
+        CompilerServiceImpl service = new CompilerServiceImpl();
+        DefinitionFactoryImpl<Source<ProviderDef>, ProviderDef> general = new DefinitionFactoryImpl<>(Object.class, ProviderDef.class, "mimetype");
+        DefinitionFactoryImpl<Source<ProviderDef>, ProviderDef> specific = new DefinitionFactoryImpl<>(Source.class, ProviderDef.class, "mimetype");
+        DefinitionFactoryImpl<Source<ProviderDef>, ProviderDef> other = new DefinitionFactoryImpl<>(Source.class, ProviderDef.class, "other");
+        @SuppressWarnings("unchecked")
+        Source<ProviderDef> source = Mockito.mock(Source.class);
+        @SuppressWarnings("unchecked")
+        DefDescriptor<ProviderDef> descriptor = Mockito.mock(DefDescriptor.class);
+        ProviderDef def = Mockito.mock(ProviderDef.class);
+
+        Mockito.when(source.getDescriptor()).thenReturn(descriptor);
+        Mockito.when(source.getMimeType()).thenReturn("mimetype");
+        Mockito.when(descriptor.getDefType()).thenReturn(DefType.PROVIDER);
+        specific.putDefinition(source, def);
+        service.setFactories(Lists.newArrayList(specific, general, other));
+
+        assertEquals("should compile with the most specific factory", def, service.compile(descriptor, source));
+        assertEquals("should use the same factory again", def, service.compile(descriptor, source));
+    }
+
+    @Test
+    public void testSetFactoriesReplacesDispatch() throws Exception {
+        CompilerServiceImpl service = new CompilerServiceImpl();
+        DefinitionFactoryImpl<Source<ProviderDef>, ProviderDef> factory = new DefinitionFactoryImpl<>(Source.class, ProviderDef.class, "mimetype");
+        @SuppressWarnings("unchecked")
+        Source<ProviderDef> source = Mockito.mock(Source.class);
+        @SuppressWarnings("unchecked")
+        DefDescriptor<ProviderDef> descriptor = Mockito.mock(DefDescriptor.class);
+        ProviderDef def = Mockito.mock(ProviderDef.class);
+
+        Mockito.when(source.getDescriptor()).thenReturn(descriptor);
+        Mockito.when(source.getMimeType()).thenReturn("mimetype");
+        Mockito.when(descriptor.getDefType()).thenReturn(DefType.PROVIDER);
+        factory.putDefinition(source, def);
+        service.setFactories(Lists.newArrayList());
+        assertNull("should not compile a source with no factory", service.compile(descriptor, source));
+
+        service.setFactories(Lists.newArrayList(factory));
+        assertEquals("should compile with the new factory", def, service.compile(descriptor, source));
+    }
+
     @Test
     public void testSourceNoFactoryMatch() throws Exception {
         CompilerServiceImpl service = new CompilerServiceImpl();
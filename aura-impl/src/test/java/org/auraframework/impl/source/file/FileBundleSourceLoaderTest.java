@@ -35,6 +35,7 @@ import java.util.stream.Stream;
 
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.def.EventDef;
@@ -748,6 +749,42 @@ public class FileBundleSourceLoaderTest {
                 .contains(new DefDescriptorImpl<>("markup", "matchingNamespace3", "interface", InterfaceDef.class)));
     }
 
+    @Test
+    public void testFind_WithNamespaceAndNameGlobs() throws Exception {
+        List<FileSourceLocation> sources = new ArrayList<>();
+        sources.add(getComponentLocation());
+
+        File components = sources.get(0).getSourceDirectory();
+        makeFile(components, "matchingNamespace1", "matchingComponent", ".cmp", "<aura:component/>");
+        makeFile(components, "matchingNamespace1", "otherComponent", ".cmp", "<aura:component/>");
+        makeFile(components, "matchingNamespace2", "MatchingComponent", ".cmp", "<aura:component/>");
+        makeFile(components, "otherNamespace", "matchingComponent", ".cmp", "<aura:component/>");
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(sources, Sets.newHashSet(new ComponentDefFileBundleBuilder()));
+
+        Set<DefDescriptor<?>> descriptors = loader.find(new DescriptorFilter("markup://matching*:matching*"));
+        assertEquals(2, descriptors.size());
+        assertTrue(descriptors.contains(
+                new DefDescriptorImpl<>("markup", "matchingNamespace1", "matchingComponent", ComponentDef.class)));
+        assertTrue(descriptors.contains(
+                new DefDescriptorImpl<>("markup", "matchingNamespace2", "MatchingComponent", ComponentDef.class)));
+
+        descriptors = loader.find(new DescriptorFilter("markup://*:*Component"));
+        assertEquals(4, descriptors.size());
+    }
+
+    @Test
+    public void testFind_WithNonBundleType_ReturnsEmpty() throws Exception {
+        List<FileSourceLocation> sources = new ArrayList<>();
+        sources.add(getComponentLocation());
+
+        File components = sources.get(0).getSourceDirectory();
+        makeFile(components, "test", "component", ".cmp", "<aura:component/>");
+        FileBundleSourceLoader loader = new FileBundleSourceLoader(sources, Sets.newHashSet(new ComponentDefFileBundleBuilder()));
+
+        assertEquals(0, loader.find(new DescriptorFilter("markup://test:*", DefType.STYLE)).size());
+        assertEquals(1, loader.find(new DescriptorFilter("markup://test:*", DefType.COMPONENT)).size());
+    }
+
     @Test
     public void testIsInternalNamespace_WithNull_ReturnsTrue() throws Exception {
         List<FileSourceLocation> sources = new ArrayList<>();
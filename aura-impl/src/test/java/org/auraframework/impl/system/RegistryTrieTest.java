@@ -19,6 +19,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -533,6 +534,83 @@ public class RegistryTrieTest {
         assertEquals(true, actual.contains(reg2));
     }
 
+    @Test
+    public void testGetRegistriesReusesMatchForWildcardFilter() {
+        MockRegistry reg1 = new MockRegistry().setNamespaces("testNamespace");
+        MockRegistry reg2 = new MockRegistry().setNamespaces("otherNamespace");
+        RegistryTrie trie = new RegistryTrie(Lists.newArrayList(reg1, reg2));
+
+        Collection<DefRegistry> actual = trie.getRegistries(new DescriptorFilter("*Namespace:*"));
+        assertSame(actual, trie.getRegistries(new DescriptorFilter("*Namespace:*")));
+        assertEquals(2, actual.size());
+    }
+
+    @Test
+    public void testGetRegistriesWildcardIgnoresName() {
+        MockRegistry reg1 = new MockRegistry().setNamespaces("testNamespace");
+        MockRegistry reg2 = new MockRegistry().setNamespaces("otherNamespace");
+        RegistryTrie trie = new RegistryTrie(Lists.newArrayList(reg1, reg2));
+
+        Collection<DefRegistry> actual = trie.getRegistries(new DescriptorFilter("*Namespace:first"));
+        assertSame(actual, trie.getRegistries(new DescriptorFilter("*Namespace:second*")));
+        assertEquals(2, actual.size());
+    }
+
+    @Test
+    public void testGetRegistriesMatchCaseSensitiveNamespace() {
+        MockRegistry reg1 = new MockRegistry().setNamespaces("ONE");
+        MockRegistry reg2 = new MockRegistry().setNamespaces("one");
+        RegistryTrie trie = new RegistryTrie(Lists.newArrayList(reg1, reg2));
+
+        Collection<DefRegistry> actual = trie.getRegistries(new DescriptorFilter("one:*"));
+        assertEquals(2, actual.size());
+        assertTrue(actual.contains(reg1));
+        assertTrue(actual.contains(reg2));
+    }
+
+    /**
+     * Lookups in the trie must give the same registries as matching every registry, over a large set.
+     */
+    @Test
+    public void testGetRegistriesSameAsScanForManyRegistries() {
+        List<DefRegistry> registries = Lists.newArrayList();
+        for (int i = 0; i < 300; i++) {
+            registries.add(new MockRegistry().setNamespaces("ns" + i, "Shared" + i)
+                    .setPrefixes(i % 3 == 0 ? "js" : "markup")
+                    .setDefTypes(i % 2 == 0 ? DefType.COMPONENT : DefType.LIBRARY));
+        }
+        registries.add(new MockRegistry().setNamespaces("*").setPrefixes("markup")
+                .setDefTypes(DefType.COMPONENT, DefType.INTERFACE));
+        RegistryTrie trie = new RegistryTrie(registries);
+
+        List<DescriptorFilter> filters = Lists.newArrayList(
+                new DescriptorFilter("ns42:*"),
+                new DescriptorFilter("markup://NS43:cmp", DefType.LIBRARY),
+                new DescriptorFilter("js://shared3:*", Lists.newArrayList(DefType.COMPONENT, DefType.LIBRARY)),
+                new DescriptorFilter("markup://missing:*", DefType.INTERFACE),
+                new DescriptorFilter("ns1*:*"),
+                new DescriptorFilter("*://ns7:*"),
+                new DescriptorFilter("*:*", DefType.LIBRARY));
+        for (DescriptorFilter filter : filters) {
+            assertEquals(filter.toString(), scan(registries, filter), Sets.newHashSet(trie.getRegistries(filter)));
+        }
+    }
+
+    private Set<DefRegistry> scan(List<DefRegistry> registries, DescriptorFilter filter) {
+        Set<DefRegistry> matched = Sets.newHashSet();
+        for (DefRegistry reg : registries) {
+            boolean type = filter.getDefTypes() == null
+                    || !Sets.intersection(reg.getDefTypes(), Sets.newHashSet(filter.getDefTypes())).isEmpty();
+            boolean prefix = reg.getPrefixes().stream().anyMatch(filter::matchPrefix);
+            boolean namespace = reg.getNamespaces().stream()
+                    .anyMatch(ns -> "*".equals(ns) || filter.matchNamespace(ns));
+            if (type && prefix && namespace) {
+                matched.add(reg);
+            }
+        }
+        return matched;
+    }
+
     @Test
     public void testToString() {
         MockRegistry reg1 = new MockRegistry().setNamespaces("testNamespace").setPrefixes("markup");
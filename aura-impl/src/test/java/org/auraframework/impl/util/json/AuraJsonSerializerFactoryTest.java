@@ -16,7 +16,6 @@
 package org.auraframework.impl.util.json;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentMap;
 
 import org.auraframework.adapter.JsonSerializerAdapter;
 import org.auraframework.impl.AuraImplTestCase;
@@ -117,8 +116,8 @@ public class AuraJsonSerializerFactoryTest extends AuraImplTestCase {
 
         assertEquals("Should get the provided lookup serializer", serializer, factory.getSerializer(object));
 
-        ConcurrentMap<String, JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
-        assertEquals("Serializer should be cached", serializer, cache.get(object.getClass().getName()));
+        ClassValue<JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
+        assertEquals("Serializer should be cached", serializer, cache.get(object.getClass()));
     }
 
     @Test
@@ -136,8 +135,8 @@ public class AuraJsonSerializerFactoryTest extends AuraImplTestCase {
 
         assertEquals("Should get the provided lookup serializer", serializer, factory.getSerializer(object));
 
-        ConcurrentMap<String, JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
-        assertEquals("Serializer should be cached", serializer, cache.get(object.getClass().getName()));
+        ClassValue<JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
+        assertEquals("Serializer should be cached", serializer, cache.get(object.getClass()));
     }
 
     @Test
@@ -155,7 +154,45 @@ public class AuraJsonSerializerFactoryTest extends AuraImplTestCase {
 
         assertEquals("Should get null", null, factory.getSerializer(object));
 
-        ConcurrentMap<String, JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
-        assertNotNull("Serializer (null) should be cached", cache.get(object.getClass().getName()));
+        ClassValue<JsonSerializer<?>> cache = AuraPrivateAccessor.get(factory, "cache");
+        assertNotNull("Serializer (null) should be cached", cache.get(object.getClass()));
+    }
+
+    @Test
+    public void testNotFoundIsLoggedOnce() throws Exception {
+        Mockito.when(jsonSerializerAdapter.lookupSerializers()).thenReturn(Maps.newHashMap());
+        Mockito.when(jsonSerializerAdapter.instanceofSerializers()).thenReturn(Maps.newHashMap());
+
+        AuraJsonSerializerFactory factory = new AuraJsonSerializerFactory();
+        factory.setLoggingService(loggingService);
+        factory.setJsonSerializerAdapters(Lists.newArrayList(jsonSerializerAdapter));
+
+        assertNull("Should get null", factory.getSerializer("object"));
+        assertNull("Should get null", factory.getSerializer("other"));
+
+        Mockito.verify(loggingService, Mockito.times(1)).info(Mockito.anyString());
+    }
+
+    @Test
+    public void testSerializersAreResolvedPerFactory() throws Exception {
+        Map<String,JsonSerializer<?>> map = Maps.newHashMap();
+        JsonSerializer<?> serializer = Mockito.mock(JsonSerializer.class);
+        String object = "object";
+        map.put(object.getClass().getName(), serializer);
+        JsonSerializerAdapter otherAdapter = Mockito.mock(JsonSerializerAdapter.class);
+        Mockito.when(otherAdapter.lookupSerializers()).thenReturn(map);
+        Mockito.when(otherAdapter.instanceofSerializers()).thenReturn(Maps.newHashMap());
+        Mockito.when(jsonSerializerAdapter.lookupSerializers()).thenReturn(Maps.newHashMap());
+        Mockito.when(jsonSerializerAdapter.instanceofSerializers()).thenReturn(Maps.newHashMap());
+
+        AuraJsonSerializerFactory factory = new AuraJsonSerializerFactory();
+        factory.setLoggingService(loggingService);
+        factory.setJsonSerializerAdapters(Lists.newArrayList(jsonSerializerAdapter));
+        AuraJsonSerializerFactory otherFactory = new AuraJsonSerializerFactory();
+        otherFactory.setLoggingService(loggingService);
+        otherFactory.setJsonSerializerAdapters(Lists.newArrayList(otherAdapter));
+
+        assertNull("Should get null", factory.getSerializer(object));
+        assertEquals("Should get the provided lookup serializer", serializer, otherFactory.getSerializer(object));
     }
 }
@@ -15,19 +15,24 @@
  */
 package org.auraframework.integration.test.css;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import javax.inject.Inject;
 
 import org.auraframework.adapter.ExpressionBuilder;
+import org.auraframework.adapter.StyleAdapter;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.StyleDef;
 import org.auraframework.def.TokensDef;
+import org.auraframework.impl.css.StyleDefWriter;
 import org.auraframework.impl.css.StyleTestCase;
 import org.auraframework.impl.validation.ReferenceValidationContextImpl;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.throwable.quickfix.TokenValueNotFoundException;
 import org.auraframework.util.AuraTextUtil;
@@ -37,6 +42,7 @@ import org.auraframework.util.json.JsonReader;
 import org.auraframework.validation.ReferenceValidationContext;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
@@ -56,6 +62,9 @@ public class StyleDefImplTest extends StyleTestCase {
     @Inject
     ExpressionBuilder expressionBuilder;
 
+    @Inject
+    StyleAdapter styleAdapter;
+
     @Test
     public void testDependenciesIncludesNsDefault() throws QuickFixException {
         DefDescriptor<TokensDef> nsDefault = addNsTokens(tokens().token("color", "red"));
@@ -86,6 +95,69 @@ public class StyleDefImplTest extends StyleTestCase {
         assertEquals(expected, definitionService.getDefinition(style).getClassName());
     }
 
+    @Test
+    public void testRuntimeInvariantCodeIsReused() throws QuickFixException {
+        DefDescriptor<StyleDef> style = addStyleDef(".THIS {color: red }");
+        StyleDef def = definitionService.getDefinition(style);
+
+        String first = def.getCode();
+        assertTrue(first.contains("red"));
+        assertSame(first, def.getCode());
+    }
+
+    @Test
+    public void testRuntimeInvariantCodeIsReusedByStyleDefWriter() throws Exception {
+        DefDescriptor<StyleDef> style = addStyleDef(".THIS {color: red }");
+        StyleDef def = definitionService.getDefinition(style);
+        List<CharSequence> written = new ArrayList<>();
+
+        new StyleDefWriter(definitionService, styleAdapter, contextService.getCurrentContext())
+                .writeStyleDefs(ImmutableList.of(def), recording(written));
+
+        assertEquals(1, written.size());
+        assertSame(written.get(0), def.getCode());
+    }
+
+    @Test
+    public void testFontFaceIsCheckedByStyleDefWriter() throws Exception {
+        String fontFace = "@font-face {font-family: Custom1; src: local(Custom1)}";
+        StyleDef first = definitionService.getDefinition(addStyleDef(fontFace));
+        StyleDef second = definitionService.getDefinition(addStyleDef(fontFace));
+        // warm the per mode output, which must not let the duplicate through.
+        first.getCode();
+        second.getCode();
+
+        try {
+            new StyleDefWriter(definitionService, styleAdapter, contextService.getCurrentContext())
+                    .writeStyleDefs(ImmutableList.of(first, second), new StringBuilder());
+            fail("expected the duplicate font-face to be reported");
+        } catch (Exception e) {
+            checkExceptionContains(e, AuraRuntimeException.class, "was already declared");
+        }
+    }
+
+    private static Appendable recording(List<CharSequence> written) {
+        return new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                written.add(csq);
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                written.add(csq.subSequence(start, end));
+                return this;
+            }
+
+            @Override
+            public Appendable append(char c) {
+                written.add(String.valueOf(c));
+                return this;
+            }
+        };
+    }
+
     /**
      * Verify that if already preloaded, StyleDef doesn't include code when serialized.
      *
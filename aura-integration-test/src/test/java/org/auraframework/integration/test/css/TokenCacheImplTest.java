@@ -192,6 +192,23 @@ public class TokenCacheImplTest extends StyleTestCase {
         assertEquals("red", tokens.getToken("color").get());
     }
 
+    @Test
+    public void testGetTokenLastOneWins() throws Exception {
+        tokens = build(desc1, desc3, desc2);
+        assertEquals("2", tokens.getToken("num").get());
+        assertEquals("2", build(desc1, desc3, desc2).getToken("num").get());
+        assertEquals("3", build(desc1, desc2, desc3).getToken("num").get());
+    }
+
+    @Test
+    public void testGetTokenDeclaredAfterMapProvider() throws Exception {
+        DefDescriptor<TokensDef> tokensA = addSeparateTokens(tokens().mapProvider("java://" + P3.class.getName()));
+        DefDescriptor<TokensDef> tokensB = addSeparateTokens(tokens().token("color", "blue"));
+
+        tokens = build(tokensA, tokensB);
+        assertEquals("blue", tokens.getToken("color").get());
+    }
+
     @Provider
     public static final class P4 implements TokenMapProvider {
         @Override
@@ -250,5 +250,40 @@ public class AuraComponentDefinitionServletTest {
         // Assert
         Mockito.verify(response).sendRedirect("https://example.host/auraCmpDef?aura.app=myApp&_ff=null&_l=false&_cssvar=true&_l10n=&_style=styling&_def=def:qualifiedName&_uid=DIFFERENT_UID");
 
-    } 
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCanonicalResponseIsCached() throws Exception {
+        // Arrange
+        setMockRequestParameters("myApp", "true", "de", "styling", "def", "UID");
+        DefDescriptor<Definition> defDescriptorMock = Mockito.mock(DefDescriptor.class);
+        Mockito.when(defDescriptorMock.getNamespace()).thenReturn("namespace");
+        Mockito.when(defDescriptorMock.getName()).thenReturn("name");
+        Mockito.when(defDescriptorMock.getQualifiedName()).thenReturn("def:qualifiedName");
+        Mockito.when(definitionService.getDefDescriptor(Matchers.eq("def"), Matchers.any())).thenReturn(defDescriptorMock);
+        Mockito.when(definitionService.getUid(null, defDescriptorMock)).thenReturn("UID");
+        Mockito.when(definitionService.exists(defDescriptorMock)).thenReturn(true);
+        DefDescriptor<Definition> appDescriptorMock = Mockito.mock(DefDescriptor.class);
+        Mockito.when(appDescriptorMock.getQualifiedName()).thenReturn("markup://my:app");
+        Mockito.when(definitionService.getDefDescriptor(Matchers.eq("myApp"), Matchers.any())).thenReturn(appDescriptorMock);
+        Mockito.when(definitionService.exists(appDescriptorMock)).thenReturn(true);
+        Mockito.when(definitionService.getUid(null, appDescriptorMock)).thenReturn("APP_UID");
+        Mockito.when(response.getWriter()).thenReturn(Mockito.mock(PrintWriter.class));
+        Mockito.when(contextService.getCurrentContext()).thenReturn(auraContextService);
+        Mockito.when(auraContextService.getRestrictedNamespaces()).thenReturn(new HashSet<String>());
+
+        // Act
+        AuraPrivateAccessor.invoke(auraComponentDefinitionServlet, "doGet", request, response);
+        AuraPrivateAccessor.invoke(auraComponentDefinitionServlet, "doGet", request, response);
+
+        // Assert
+        // the first request writes the requested definitions and their dependencies, the second is a hit.
+        Mockito.verify(serverService, Mockito.times(2)).writeDefinitions(Matchers.any(), Matchers.any(),
+                Matchers.anyBoolean(), Matchers.anyInt(), Matchers.any(), Matchers.anyBoolean(), Matchers.anyString());
+        Mockito.verify(servletUtilAdapter, Mockito.times(2)).setLongCache(response);
+        // the cached definitions go through the writer, like everything else in the response.
+        Mockito.verify(response, Mockito.times(2)).getWriter();
+        Mockito.verify(response, Mockito.never()).getOutputStream();
+    }
 }
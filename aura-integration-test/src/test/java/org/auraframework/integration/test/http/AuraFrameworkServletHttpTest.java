@@ -345,6 +345,31 @@ public class AuraFrameworkServletHttpTest extends AuraHttpTestCase {
         get.releaseConnection();
     }
 
+    /**
+     * Verify that a nonced resource carries an entity tag, and that the tag is answered with a 304.
+     */
+    @Test
+    public void testRequestTextResourceWithNonceETag() throws Exception {
+        HttpGet get = obtainNoncedGetMethod(sampleTextResourcePathWithNonce, false);
+        HttpResponse response = perform(get);
+        checkLongCache(response, "text/css");
+        Header etag = response.getFirstHeader(HttpHeaders.ETAG);
+        get.releaseConnection();
+        assertNotNull("Nonced resource should have an ETag", etag);
+
+        get = obtainNoncedGetMethod(sampleTextResourcePathWithNonce, false);
+        get.setHeader(HttpHeaders.IF_NONE_MATCH, etag.getValue());
+        int statusCode = getStatusCode(perform(get));
+        get.releaseConnection();
+        assertEquals("AuraFrameworkServlet failed to return not modified.", HttpStatus.SC_NOT_MODIFIED, statusCode);
+
+        get = obtainNoncedGetMethod(sampleTextResourcePathWithNonce, false);
+        get.setHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+        response = perform(get);
+        checkLongCache(response, "text/css");
+        get.releaseConnection();
+    }
+
     /**
      * Verify that AuraFrameworkServlet responds successfully to valid request for a text resource.
      */
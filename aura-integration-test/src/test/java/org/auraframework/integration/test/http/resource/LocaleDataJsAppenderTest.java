@@ -19,13 +19,17 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertThat;
 
+import java.util.Locale;
+
 import javax.inject.Inject;
 
 import org.auraframework.adapter.ExceptionAdapter;
 import org.auraframework.adapter.LocalizationAdapter;
 import org.auraframework.http.resource.LocaleDataJsAppender;
 import org.auraframework.impl.AuraImplTestCase;
+import org.auraframework.util.AuraLocale;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 /**
  * Test for the {@link LocaleDataJsAppender} class.
@@ -92,4 +96,45 @@ public class LocaleDataJsAppenderTest extends AuraImplTestCase {
         String expected = "he";
         assertThat(actual, equalTo(expected));
     }
+
+    @Test
+    public void testAppendReusesScriptForSameLocales() throws Exception {
+        AuraLocale auraLocale = Mockito.mock(AuraLocale.class);
+        Mockito.when(auraLocale.getLanguageLocale()).thenReturn(Locale.FRENCH);
+        Mockito.when(auraLocale.getLocale()).thenReturn(Locale.FRANCE);
+        LocalizationAdapter mockAdapter = Mockito.mock(LocalizationAdapter.class);
+        Mockito.when(mockAdapter.getAuraLocale()).thenReturn(auraLocale);
+
+        LocaleDataJsAppender appender = new LocaleDataJsAppender();
+        appender.setLocalizationAdapter(mockAdapter);
+        appender.setExceptionAdapter(exceptionAdapter);
+        appender.initialize();
+
+        StringBuilder first = new StringBuilder();
+        appender.append(null, null, first);
+        StringBuilder second = new StringBuilder();
+        appender.append(null, null, second);
+
+        assertThat(first.toString().contains("function loadLocaleData(moment)"), equalTo(true));
+        assertThat(second.toString(), equalTo(first.toString()));
+    }
+
+    @Test
+    public void testAppendWritesNothingForEnglish() throws Exception {
+        AuraLocale auraLocale = Mockito.mock(AuraLocale.class);
+        Mockito.when(auraLocale.getLanguageLocale()).thenReturn(Locale.ENGLISH);
+        Mockito.when(auraLocale.getLocale()).thenReturn(Locale.US);
+        LocalizationAdapter mockAdapter = Mockito.mock(LocalizationAdapter.class);
+        Mockito.when(mockAdapter.getAuraLocale()).thenReturn(auraLocale);
+
+        LocaleDataJsAppender appender = new LocaleDataJsAppender();
+        appender.setLocalizationAdapter(mockAdapter);
+        appender.setExceptionAdapter(exceptionAdapter);
+        appender.initialize();
+
+        StringBuilder out = new StringBuilder();
+        appender.append(null, null, out);
+
+        assertThat(out.toString(), equalTo(""));
+    }
 }
@@ -180,4 +180,24 @@ public class JavaModelIntegrationTest extends AuraImplTestCase {
                     javaModelDefDesc.getName());
         }
     }
+
+    /**
+     * Verify that a missing property is still reported once the lookup is cached.
+     */
+    @Test
+    public void testNonExistingPropertyIsReportedEveryTime() throws Exception {
+        DefDescriptor<ModelDef> javaModelDefDesc = definitionService.getDefDescriptor(
+                "java://org.auraframework.impl.java.model.TestModel", ModelDef.class);
+        ModelDef mDef = definitionService.getDefinition(javaModelDefDesc);
+        Model model = instanceService.getInstance(mDef);
+        for (int i = 0; i < 2; i++) {
+            try {
+                model.getValue(new PropertyReferenceImpl("DoesNotExist", new Location("test", 0)));
+                fail("Expected AuraExecutionException when getting value of a non existing property from Java model.");
+            } catch (Exception e) {
+                checkExceptionStart(e, AuraExecutionException.class, "TestModel: no such property: DoesNotExist",
+                        javaModelDefDesc.getName());
+            }
+        }
+    }
 }
@@ -162,10 +162,15 @@ public interface Json {
 
         private String name;
         private String shortName;
+        private String encodedName;
+        private String encodedShortName;
 
         ApplicationKey(String name, String shortName){
             this.name=name;
             this.shortName=shortName;
+            // The names are plain identifiers, so quoting is all the encoding they need.
+            this.encodedName="\""+name+"\"";
+            this.encodedShortName="\""+shortName+"\"";
         }
 
         @Override
@@ -173,6 +178,13 @@ public interface Json {
             return useShortName?this.shortName:this.name;
         }
 
+        /**
+         * @return the key as a quoted JSON string.
+         */
+        public String getEncoded(){
+            return useShortName?this.encodedShortName:this.encodedName;
+        }
+
         private static Boolean useShortName=true;
         public static void useShortKey(Boolean useShortKey){
             useShortName=useShortKey;
@@ -206,6 +218,8 @@ public interface Json {
     void writeMapKey(Object key) throws IOException;
     void writeMapSeparator() throws IOException;
     void writeString(Object value) throws IOException;
+    Appendable writeStringBegin() throws IOException;
+    void writeStringEnd() throws IOException;
     void writeValue(Object value) throws IOException;
     void startCapturing();
     String stopCapturing();
@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.modules.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.auraframework.modules.ModulesCompilerData;
+import org.auraframework.service.LoggingService;
+import org.auraframework.util.DiskCache;
+import org.lwc.CompilerReport;
+import org.lwc.LwcCompiler;
+import org.lwc.OutputConfig;
+import org.lwc.bundle.BundleType;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * ModulesCompiler that remembers the output of another compiler, keyed by a hash of its inputs.
+ *
+ * The key covers the sources (with their paths relative to the bundle), the bundle type, the namespace mapping,
+ * the output configs and the LWC compiler version. Concurrent requests for the same key share one compilation.
+ * Results are kept in memory, and when a directory is given the {@link CompilerReport} is also written to disk as
+ * JSON so that a restarted node can rebuild the {@link ModulesCompilerData} without going to node. The disk tier is
+ * a {@link DiskCache}, so the directory must be private to the current user and entries are checked against a hash
+ * before they are read. A report is only stored once it has been read back from its JSON and produced the same JSON
+ * again; reports that do not survive that are logged and kept in memory only. Failed compilations are never cached.
+ */
+public final class ModulesCompilerCache implements ModulesCompiler {
+
+    /**
+     * Reads and writes reports. Only org.lwc types are ever instantiated, and only through their fields.
+     */
+    static final Gson GSON = new GsonBuilder()
+            .serializeNulls()
+            .registerTypeAdapterFactory(new OptionalAdapterFactory())
+            .registerTypeAdapterFactory(new LwcSubtypeAdapterFactory())
+            .create();
+
+    private final ModulesCompiler delegate;
+    private final DiskCache disk;
+    private final LoggingService loggingService;
+    private final Cache<String, ModulesCompilerData> memory;
+    private final String compilerVersion;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong diskRejects = new AtomicLong();
+
+    /**
+     * @param delegate the compiler that does the work on a miss.
+     * @param directory the directory for the disk tier, or null for memory only.
+     * @param maximumSize the maximum number of results to keep in memory.
+     * @param diskSize the maximum number of bytes to keep on disk.
+     * @param loggingService for reporting disk problems, may be null.
+     */
+    public ModulesCompilerCache(ModulesCompiler delegate, File directory, long maximumSize, long diskSize,
+            LoggingService loggingService) {
+        this.delegate = delegate;
+        this.loggingService = loggingService;
+        this.disk = openDisk(directory, diskSize);
+        this.memory = CacheBuilder.newBuilder().maximumSize(maximumSize).softValues().build();
+        String version = LwcCompiler.class.getPackage().getImplementationVersion();
+        this.compilerVersion = version != null ? version : "unknown";
+    }
+
+    private DiskCache openDisk(File directory, long diskSize) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return DiskCache.open(directory, diskSize);
+        } catch (IOException e) {
+            warn("ModulesCompilerCache: not caching compiled modules on disk: " + e, e);
+            return null;
+        }
+    }
+
+    @Override
+    public ModulesCompilerData compile(String entry, Map<String, String> sources, BundleType bundleType,
+            Map<String, String> namespaceMapping, List<OutputConfig> configs) throws Exception {
+        String key = getKey(entry, sources, bundleType, namespaceMapping, configs);
+
+        ModulesCompilerData data = memory.getIfPresent(key);
+        if (data != null) {
+            memoryHits.incrementAndGet();
+            return data;
+        }
+
+        try {
+            return memory.get(key, () -> {
+                ModulesCompilerData fromDisk = readFromDisk(key);
+                if (fromDisk != null) {
+                    diskHits.incrementAndGet();
+                    return fromDisk;
+                }
+                misses.incrementAndGet();
+                ModulesCompilerData compiled = delegate.compile(entry, sources, bundleType, namespaceMapping,
+                        configs);
+                writeToDisk(key, compiled);
+                return compiled;
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of compilations served from memory.
+     */
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * @return the number of compilations served from disk.
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * @return the number of compilations passed on to the delegate.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of compiled reports that could not be stored on disk because they did not survive JSON.
+     */
+    public long getDiskRejects() {
+        return diskRejects.get();
+    }
+
+    /**
+     * Compute the cache key. Source paths are made relative to the bundle, as {@link ModulesCompilerNode} does,
+     * so that the same bundle under a different root shares an entry.
+     */
+    String getKey(String entry, Map<String, String> sources, BundleType bundleType,
+            Map<String, String> namespaceMapping, List<OutputConfig> configs) {
+        String bundlePath = getBundlePath(entry);
+        Map<String, String> sortedSources = new TreeMap<>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            String path = source.getKey();
+            int index = path.indexOf(bundlePath);
+            sortedSources.put(index >= 0 ? path.substring(index) : path, source.getValue());
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher();
+        update(hasher, compilerVersion);
+        update(hasher, bundlePath);
+        update(hasher, String.valueOf(bundleType));
+        for (Map.Entry<String, String> source : sortedSources.entrySet()) {
+            update(hasher, source.getKey());
+            update(hasher, source.getValue());
+        }
+        if (namespaceMapping != null) {
+            for (Map.Entry<String, String> mapping : new TreeMap<>(namespaceMapping).entrySet()) {
+                update(hasher, mapping.getKey());
+                update(hasher, mapping.getValue());
+            }
+        }
+        update(hasher, "configs");
+        if (configs != null) {
+            for (OutputConfig config : configs) {
+                update(hasher, config.toJSON().toString());
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void update(Hasher hasher, String value) {
+        if (value != null) {
+            hasher.putString(value, StandardCharsets.UTF_8);
+        }
+        hasher.putByte((byte) 0);
+    }
+
+    /**
+     * @return "namespace/name" for an entry like "modules/namespace/name/name.js".
+     */
+    private static String getBundlePath(String entry) {
+        String[] parts = entry.replace('\\', '/').split("/");
+        if (parts.length < 3) {
+            return entry;
+        }
+        return parts[parts.length - 3] + "/" + parts[parts.length - 2];
+    }
+
+    private ModulesCompilerData readFromDisk(String key) {
+        if (disk == null) {
+            return null;
+        }
+        byte[] json = disk.get(key);
+        if (json == null) {
+            return null;
+        }
+        try {
+            CompilerReport report = GSON.fromJson(new String(json, StandardCharsets.UTF_8), CompilerReport.class);
+            return ModulesCompilerUtil.parsePlatformCompilerOutput(report);
+        } catch (Exception e) {
+            warn("ModulesCompilerCache: unable to read entry " + key + ": " + e, e);
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, ModulesCompilerData data) {
+        if (disk == null || data.compilerReport == null) {
+            return;
+        }
+        String json;
+        try {
+            json = toVerifiedJson(data.compilerReport);
+        } catch (Exception e) {
+            diskRejects.incrementAndGet();
+            warn("ModulesCompilerCache: not storing entry " + key + ", its compiler report does not survive JSON: "
+                    + e, e);
+            return;
+        }
+        disk.put(key, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write a report as JSON, and check that reading it back gives a report that writes the same JSON and still
+     * converts to {@link ModulesCompilerData}.
+     *
+     * @throws Exception if the report does not survive the round trip.
+     */
+    static String toVerifiedJson(CompilerReport report) throws Exception {
+        JsonElement tree = GSON.toJsonTree(report);
+        String json = GSON.toJson(tree);
+        CompilerReport copy = GSON.fromJson(json, CompilerReport.class);
+        if (!tree.equals(GSON.toJsonTree(copy))) {
+            throw new JsonParseException("JSON read back from " + report.getClass().getName() + " differs");
+        }
+        ModulesCompilerUtil.parsePlatformCompilerOutput(copy);
+        return json;
+    }
+
+    private void warn(String message, Throwable t) {
+        if (loggingService != null) {
+            loggingService.warn(message, t);
+        }
+    }
+
+    /**
+     * Writes an Optional as its value or null, and reads null back as empty.
+     */
+    private static final class OptionalAdapterFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != Optional.class) {
+                return null;
+            }
+            Type valueType = type.getType() instanceof ParameterizedType
+                    ? ((ParameterizedType) type.getType()).getActualTypeArguments()[0] : Object.class;
+            TypeAdapter<Object> valueAdapter = (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(valueType));
+            return (TypeAdapter<T>) new TypeAdapter<Optional<Object>>() {
+                @Override
+                public void write(JsonWriter out, Optional<Object> value) throws IOException {
+                    if (value == null || !value.isPresent()) {
+                        out.nullValue();
+                    } else {
+                        valueAdapter.write(out, value.get());
+                    }
+                }
+
+                @Override
+                public Optional<Object> read(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return Optional.empty();
+                    }
+                    return Optional.ofNullable(valueAdapter.read(in));
+                }
+            };
+        }
+    }
+
+    /**
+     * Records the runtime class of every org.lwc value whose declared type could have subclasses, such as the
+     * members of a class, so that they are read back as the same class. Only org.lwc classes assignable to the
+     * declared type are accepted on read.
+     */
+    private static final class LwcSubtypeAdapterFactory implements TypeAdapterFactory {
+        private static final String PACKAGE = "org.lwc.";
+
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<? super T> declared = type.getRawType();
+            if (!declared.getName().startsWith(PACKAGE) || declared.isEnum()
+                    || Modifier.isFinal(declared.getModifiers())) {
+                return null;
+            }
+            return new TypeAdapter<T>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public void write(JsonWriter out, T value) throws IOException {
+                    if (value == null) {
+                        out.nullValue();
+                        return;
+                    }
+                    Class<T> actual = (Class<T>) value.getClass();
+                    out.beginObject();
+                    out.name("type").value(actual.getName());
+                    out.name("value");
+                    gson.getDelegateAdapter(LwcSubtypeAdapterFactory.this, TypeToken.get(actual)).write(out, value);
+                    out.endObject();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T read(JsonReader in) throws IOException {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        return null;
+                    }
+                    in.beginObject();
+                    if (!"type".equals(in.nextName())) {
+                        throw new JsonParseException("Expected the type of a " + declared.getName());
+                    }
+                    String name = in.nextString();
+                    if (!name.startsWith(PACKAGE)) {
+                        throw new JsonParseException(name + " is not a " + declared.getName());
+                    }
+                    Class<?> actual;
+                    try {
+                        actual = Class.forName(name, false, declared.getClassLoader());
+                    } catch (ClassNotFoundException e) {
+                        throw new JsonParseException("Unknown type " + name, e);
+                    }
+                    if (!declared.isAssignableFrom(actual)) {
+                        throw new JsonParseException(name + " is not a " + declared.getName());
+                    }
+                    if (!"value".equals(in.nextName())) {
+                        throw new JsonParseException("Expected the value of a " + name);
+                    }
+                    T value = (T) gson.getDelegateAdapter(LwcSubtypeAdapterFactory.this, TypeToken.get(actual))
+                            .read(in);
+                    in.endObject();
+                    return value;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.modules.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.modules.ModulesCompilerData;
+import org.lwc.OutputConfig;
+import org.lwc.bundle.BundleType;
+
+/**
+ * ModulesCompiler that spreads compilations over a bounded set of workers.
+ *
+ * Workers are created lazily, up to the pool size, so each concurrent compilation gets its own compiler (and so its
+ * own node lambda). Callers on different threads compile in parallel, up to the pool size.
+ */
+public final class ModulesCompilerPool implements ModulesCompiler {
+
+    private final Callable<ModulesCompiler> workerFactory;
+    private final int size;
+    private final BlockingQueue<ModulesCompiler> idle;
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * @param workerFactory creates a compiler, called at most size times.
+     * @param size the maximum number of compilations running at once.
+     */
+    public ModulesCompilerPool(Callable<ModulesCompiler> workerFactory, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        this.workerFactory = workerFactory;
+        this.size = size;
+        this.idle = new LinkedBlockingQueue<>(size);
+    }
+
+    @Override
+    public ModulesCompilerData compile(String entry, Map<String, String> sources, BundleType bundleType,
+            Map<String, String> namespaceMapping, List<OutputConfig> configs) throws Exception {
+        ModulesCompiler worker = acquire();
+        try {
+            return worker.compile(entry, sources, bundleType, namespaceMapping, configs);
+        } finally {
+            idle.offer(worker);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Take an idle worker, creating one if the pool is not yet full, otherwise wait for one to be returned.
+     */
+    private ModulesCompiler acquire() throws Exception {
+        while (true) {
+            ModulesCompiler worker = idle.poll();
+            if (worker != null) {
+                return worker;
+            }
+            if (created.incrementAndGet() <= size) {
+                try {
+                    return workerFactory.call();
+                } catch (Exception e) {
+                    created.decrementAndGet();
+                    throw e;
+                }
+            }
+            created.decrementAndGet();
+            // poll rather than take, a worker that failed to create will never be returned.
+            worker = idle.poll(100, TimeUnit.MILLISECONDS);
+            if (worker != null) {
+                return worker;
+            }
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.lwc.OutputConfig;
 import org.lwc.bundle.BundleType;
 
 import javax.inject.Inject;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -34,6 +35,17 @@ import java.util.Map;
 @ServiceComponent
 public class ModulesCompilerServiceImpl implements ModulesCompilerService {
 
+    private static final String WORKERS_PROPERTY = "aura.modules.compilerWorkers";
+    private static final String CACHE_DIR_PROPERTY = "aura.modules.compilerCacheDir";
+    private static final String CACHE_SIZE_PROPERTY = "aura.modules.compilerCacheSize";
+    private static final String CACHE_DISK_SIZE_PROPERTY = "aura.modules.compilerCacheDiskSize";
+
+    /** Default number of compiled modules to keep in memory */
+    private static final long CACHE_SIZE = 4 * 1024;
+
+    /** Default size of compiled modules to keep on disk, in bytes */
+    private static final long CACHE_DISK_SIZE = 512L * 1024 * 1024;
+
     private ModulesCompiler compiler;
     private NodeLambdaFactory nodeServiceFactory;
 
@@ -106,11 +118,46 @@ public class ModulesCompilerServiceImpl implements ModulesCompilerService {
     protected synchronized ModulesCompiler getCompiler() throws Exception {
         if (compiler == null) {
             nodeServiceFactory = configAdapter.nodeServiceFactory();
-            compiler = new ModulesCompilerNode(nodeServiceFactory, loggingService);
+            ModulesCompilerPool pool = new ModulesCompilerPool(
+                    () -> new ModulesCompilerNode(nodeServiceFactory, loggingService), getWorkerCount());
+            compiler = new ModulesCompilerCache(pool, getCacheDirectory(), getProperty(CACHE_SIZE_PROPERTY, CACHE_SIZE),
+                    getProperty(CACHE_DISK_SIZE_PROPERTY, CACHE_DISK_SIZE), loggingService);
         }
         return compiler;
     }
 
+    /**
+     * Number of node compilers that may run at once, overridden by {@value #WORKERS_PROPERTY}.
+     */
+    private static int getWorkerCount() {
+        int defaultWorkers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        return (int) getProperty(WORKERS_PROPERTY, defaultWorkers);
+    }
+
+    /**
+     * Private directory for compiled output that survives restarts, set with {@value #CACHE_DIR_PROPERTY}. Compiled
+     * output is kept in memory only unless the property is set.
+     */
+    private static File getCacheDirectory() {
+        String prop = System.getProperty(CACHE_DIR_PROPERTY);
+        if (prop == null || prop.isEmpty()) {
+            return null;
+        }
+        return new File(prop);
+    }
+
+    private static long getProperty(String name, long defaultValue) {
+        String prop = System.getProperty(name);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Long.parseLong(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return defaultValue;
+    }
+
     static String getCompilationLogLine(String entry, Map<String, String> sources, BundleType bundleType, List<OutputConfig> configs,
                                            long elapsedMs, NodeLambdaFactory nodeServiceFactory) {
         long sizeByte = 0;
@@ -698,7 +698,7 @@ public class BundleModuleDefFactory implements DefinitionFactory<BundleSource<Mo
      */
     private String calculateOwnHash(DefDescriptor<ModuleDef> descriptor, Map<CodeType, String> codeMap) {
         String code = codeMap.get(CodeType.DEV);
-        Hash.StringBuilder hashBuilder = new Hash.StringBuilder();
+        Hash.StringBuilder hashBuilder = new Hash.StringBuilder(Hash.getUidAlgorithm());
         hashBuilder.addString(descriptor.toString());
         hashBuilder.addString(code);
         return hashBuilder.build().toString();
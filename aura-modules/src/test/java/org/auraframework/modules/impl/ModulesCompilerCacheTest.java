@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.modules.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.def.module.ModuleDef.CodeType;
+import org.auraframework.modules.ModulesCompilerData;
+import org.junit.Test;
+import org.lwc.OutputConfig;
+import org.lwc.bundle.BundleType;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ModulesCompilerCacheTest {
+
+    /**
+     * Stand-in for the node compiler that counts calls.
+     */
+    private static class FakeModulesCompiler implements ModulesCompiler {
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Exception failure;
+
+        @Override
+        public ModulesCompilerData compile(String entry, Map<String, String> sources, BundleType bundleType,
+                Map<String, String> namespaceMapping, List<OutputConfig> configs) throws Exception {
+            calls.incrementAndGet();
+            if (failure != null) {
+                throw failure;
+            }
+            return new ModulesCompilerData(ImmutableMap.of(CodeType.DEV, entry), Collections.emptySet(),
+                    Collections.emptySet(), Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+                    Collections.emptySet());
+        }
+    }
+
+    @Test
+    public void testSameInputsCompileOnce() throws Exception {
+        FakeModulesCompiler fake = new FakeModulesCompiler();
+        ModulesCompilerCache cache = new ModulesCompilerCache(fake, null, 10, 0, null);
+        Map<String, String> sources = ImmutableMap.of("modules/ns/cmp/cmp.js", "export default 1;");
+
+        ModulesCompilerData first = cache.compile("modules/ns/cmp/cmp.js", sources, BundleType.internal,
+                Collections.emptyMap(), Collections.emptyList());
+        ModulesCompilerData second = cache.compile("modules/ns/cmp/cmp.js", sources, BundleType.internal,
+                Collections.emptyMap(), Collections.emptyList());
+
+        assertSame(first, second);
+        assertEquals(1, fake.calls.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getMemoryHits());
+    }
+
+    @Test
+    public void testKeyIgnoresSourceRoot() {
+        ModulesCompilerCache cache = new ModulesCompilerCache(new FakeModulesCompiler(), null, 10, 0, null);
+
+        String key1 = cache.getKey("/a/modules/ns/cmp/cmp.js", ImmutableMap.of("/a/modules/ns/cmp/cmp.js", "x"),
+                BundleType.internal, null, null);
+        String key2 = cache.getKey("/b/modules/ns/cmp/cmp.js", ImmutableMap.of("/b/modules/ns/cmp/cmp.js", "x"),
+                BundleType.internal, null, null);
+
+        assertEquals(key1, key2);
+    }
+
+    @Test
+    public void testKeyDependsOnInputs() {
+        ModulesCompilerCache cache = new ModulesCompilerCache(new FakeModulesCompiler(), null, 10, 0, null);
+        String entry = "modules/ns/cmp/cmp.js";
+        Map<String, String> sources = ImmutableMap.of(entry, "x");
+
+        String key = cache.getKey(entry, sources, BundleType.internal, null, null);
+
+        assertNotEquals(key, cache.getKey(entry, ImmutableMap.of(entry, "y"), BundleType.internal, null, null));
+        assertNotEquals(key, cache.getKey(entry, sources, BundleType.platform, null, null));
+        assertNotEquals(key, cache.getKey(entry, sources, BundleType.internal, ImmutableMap.of("c", "ns"), null));
+    }
+
+    @Test
+    public void testFailuresAreNotCached() throws Exception {
+        FakeModulesCompiler fake = new FakeModulesCompiler();
+        fake.failure = new ModulesCompilerException("bad");
+        ModulesCompilerCache cache = new ModulesCompilerCache(fake, null, 10, 0, null);
+        Map<String, String> sources = ImmutableMap.of("modules/ns/cmp/cmp.js", "export default 1;");
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.compile("modules/ns/cmp/cmp.js", sources, BundleType.internal, null, null);
+                fail("Expected ModulesCompilerException");
+            } catch (ModulesCompilerException expected) {
+                // expected
+            }
+        }
+
+        assertEquals(2, fake.calls.get());
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.modules.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.def.module.ModuleDef.CodeType;
+import org.auraframework.modules.ModulesCompilerData;
+import org.junit.Test;
+import org.lwc.bundle.BundleType;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ModulesCompilerPoolTest {
+
+    @Test
+    public void testConcurrencyIsBoundedByPoolSize() throws Exception {
+        AtomicInteger workers = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ModulesCompilerPool pool = new ModulesCompilerPool(() -> {
+            workers.incrementAndGet();
+            return (entry, sources, bundleType, namespaceMapping, configs) -> {
+                int now = running.incrementAndGet();
+                maxRunning.accumulateAndGet(now, Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return new ModulesCompilerData(ImmutableMap.of(CodeType.DEV, entry), Collections.emptySet(),
+                        Collections.emptySet(), Collections.emptySet(), Collections.emptySet(),
+                        Collections.emptySet(), Collections.emptySet());
+            };
+        }, 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ModulesCompilerData>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String entry = "modules/ns/cmp" + i + "/cmp" + i + ".js";
+                futures.add(executor.submit(() -> pool.compile(entry, Collections.emptyMap(), BundleType.internal,
+                        null, null)));
+            }
+            for (int i = 0; i < 8; i++) {
+                assertEquals("modules/ns/cmp" + i + "/cmp" + i + ".js", futures.get(i).get().codes.get(CodeType.DEV));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue("Too many concurrent compilations: " + maxRunning.get(), maxRunning.get() <= 2);
+        assertTrue("Too many workers: " + workers.get(), workers.get() <= 2);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * A bounded, private, on-disk key value store for caches that should survive a restart.
+ *
+ * The directory must belong to the current user and be closed to everyone else. It is created with owner only
+ * permissions if it does not exist, and refused if it exists with any other owner or permissions, or is a
+ * symbolic link. Every entry starts with a SHA-256 of its key and payload, so an entry that was truncated or
+ * changed is deleted instead of being returned. When the entries grow past the size limit the least recently
+ * used ones are removed.
+ *
+ * Keys must be lower case hex, such as a content hash.
+ */
+public class DiskCache {
+    private static final Logger logger = Logger.getLogger(DiskCache.class);
+
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+    private static final Set<PosixFilePermission> FILE_PERMISSIONS = PosixFilePermissions.fromString("rw-------");
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong bytes = new AtomicLong();
+
+    private DiskCache(Path directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.bytes.set(measure());
+    }
+
+    /**
+     * Open a cache in a directory, creating it if needed.
+     *
+     * @param directory the directory, which must not be shared with other users.
+     * @param maxBytes the size the entries may grow to before the oldest are removed.
+     * @throws IOException if the directory cannot be created or is not private to the current user.
+     */
+    public static DiskCache open(File directory, long maxBytes) throws IOException {
+        Path path = directory.toPath().toAbsolutePath();
+        createPrivateDirectory(path);
+        return new DiskCache(path, maxBytes);
+    }
+
+    /**
+     * Get an entry.
+     *
+     * @return the payload, or null if there is no intact entry for the key.
+     */
+    public byte[] get(String key) {
+        Path file = getFile(key);
+        byte[] content;
+        try {
+            if (!Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS)) {
+                return null;
+            }
+            content = Files.readAllBytes(file);
+        } catch (IOException e) {
+            logger.warn("Unable to read cache entry " + file, e);
+            return null;
+        }
+        int newline = indexOf(content, (byte) '\n');
+        if (newline >= 0) {
+            String hash = new String(content, 0, newline, StandardCharsets.US_ASCII);
+            byte[] payload = Arrays.copyOfRange(content, newline + 1, content.length);
+            if (hash.equals(hash(key, payload))) {
+                touch(file);
+                return payload;
+            }
+        }
+        logger.warn("Removing corrupt cache entry " + file);
+        delete(file);
+        return null;
+    }
+
+    /**
+     * Store an entry, replacing any earlier one for the key. Readers never see a partially written entry.
+     */
+    public void put(String key, byte[] payload) {
+        Path file = getFile(key);
+        Path temp = null;
+        try {
+            Path parent = file.getParent();
+            createPrivateDirectory(parent);
+            temp = Files.createTempFile(parent, key, TEMP_SUFFIX,
+                    PosixFilePermissions.asFileAttribute(FILE_PERMISSIONS));
+            byte[] header = (hash(key, payload) + "\n").getBytes(StandardCharsets.US_ASCII);
+            byte[] content = new byte[header.length + payload.length];
+            System.arraycopy(header, 0, content, 0, header.length);
+            System.arraycopy(payload, 0, content, header.length, payload.length);
+            Files.write(temp, content);
+            long previous = Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) ? Files.size(file) : 0L;
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+            if (bytes.addAndGet(content.length - previous) > maxBytes) {
+                prune();
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to write cache entry " + file, e);
+        } finally {
+            if (temp != null) {
+                delete(temp);
+            }
+        }
+    }
+
+    /**
+     * @return the approximate size of the entries, in bytes.
+     */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    private Path getFile(String key) {
+        if (key.length() < 2 || !key.matches("[0-9a-f]+")) {
+            throw new IllegalArgumentException("Cache keys must be lower case hex: " + key);
+        }
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * Remove the least recently used entries until the cache is down to three quarters of its limit, so that
+     * the directory is not scanned on every write once it is full.
+     */
+    private synchronized void prune() {
+        if (bytes.get() <= maxBytes) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try {
+            collect(files);
+        } catch (IOException e) {
+            logger.warn("Unable to list cache directory " + directory, e);
+            return;
+        }
+        List<FileTime> times = new ArrayList<>(files.size());
+        List<Long> sizes = new ArrayList<>(files.size());
+        List<Integer> order = new ArrayList<>(files.size());
+        long total = 0L;
+        for (Path file : files) {
+            try {
+                PosixFileAttributes attributes = Files.readAttributes(file, PosixFileAttributes.class,
+                        LinkOption.NOFOLLOW_LINKS);
+                times.add(attributes.lastModifiedTime());
+                sizes.add(attributes.size());
+            } catch (IOException e) {
+                times.add(FileTime.fromMillis(0L));
+                sizes.add(0L);
+            }
+            order.add(order.size());
+            total += sizes.get(sizes.size() - 1);
+        }
+        order.sort(Comparator.comparing(times::get));
+        long target = maxBytes / 4 * 3;
+        for (int i : order) {
+            if (total <= target) {
+                break;
+            }
+            if (delete(files.get(i))) {
+                total -= sizes.get(i);
+            }
+        }
+        bytes.set(total);
+    }
+
+    private long measure() throws IOException {
+        List<Path> files = new ArrayList<>();
+        collect(files);
+        long total = 0L;
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                // left behind by a write that never finished.
+                delete(file);
+            } else {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    private void collect(List<Path> files) throws IOException {
+        try (DirectoryStream<Path> parents = Files.newDirectoryStream(directory)) {
+            for (Path parent : parents) {
+                if (!Files.isDirectory(parent, LinkOption.NOFOLLOW_LINKS)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(parent)) {
+                    for (Path child : children) {
+                        if (Files.isRegularFile(child, LinkOption.NOFOLLOW_LINKS)) {
+                            files.add(child);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Create a directory with owner only permissions, or check that an existing one is private to us.
+     */
+    private static void createPrivateDirectory(Path path) throws IOException {
+        try {
+            Path parent = path.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.createDirectory(path, PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+            // the umask may have taken some permissions away, but never adds any.
+            return;
+        } catch (FileAlreadyExistsException e) {
+            // check it below.
+        } catch (UnsupportedOperationException e) {
+            throw new IOException("Private cache directories need a POSIX file system: " + path, e);
+        }
+        PosixFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (UnsupportedOperationException e) {
+            throw new IOException("Private cache directories need a POSIX file system: " + path, e);
+        }
+        if (!attributes.isDirectory()) {
+            throw new IOException("Cache directory is not a directory: " + path);
+        }
+        UserPrincipal user = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        if (!user.equals(attributes.owner())) {
+            throw new IOException("Cache directory " + path + " belongs to " + attributes.owner() + ", not " + user);
+        }
+        if (!DIRECTORY_PERMISSIONS.containsAll(attributes.permissions())) {
+            throw new IOException("Cache directory " + path + " is open to other users: "
+                    + PosixFilePermissions.toString(attributes.permissions()));
+        }
+    }
+
+    private static String hash(String key, byte[] payload) {
+        return Hashing.sha256().newHasher()
+                .putString(key, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putBytes(payload)
+                .hash().toString();
+    }
+
+    private static int indexOf(byte[] content, byte b) {
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // only used to pick what to prune.
+        }
+    }
+
+    private static boolean delete(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Unable to delete cache entry " + file, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link java.io.OutputStreamWriter} replacement that always writes UTF-8, encoding characters straight into a
+ * byte buffer instead of going through a {@link java.nio.charset.CharsetEncoder}.<br>
+ * <br>
+ * ASCII runs, which are almost all of the JSON and javascript we write, are copied a byte per character without any
+ * other checks. The buffer is only written to the wrapped {@link OutputStream} when it fills up, on
+ * {@link #flush()} and on {@link #close()}, so the stream sees a few large writes. Buffers are taken from a small
+ * shared pool and returned on {@link #close()}, so a writer that is closed allocates nothing.<br>
+ * <br>
+ * Output matches {@code new OutputStreamWriter(out, UTF_8)}, including surrogate pairs split across writes. Unpaired
+ * surrogates are written as '?', which is what the JDK encoder replaces them with.
+ */
+@NotThreadSafe
+public class Utf8OutputStreamWriter extends Writer {
+    /** Size of pooled buffers, in bytes */
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private static final int POOL_SIZE = 32;
+
+    private static final BlockingQueue<byte[]> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final byte REPLACEMENT = (byte) '?';
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private final boolean pooled;
+    private int count;
+    private char highSurrogate;
+
+    /**
+     * Creates a writer using a pooled buffer.
+     *
+     * @param out The OutputStream to write UTF-8 bytes to
+     */
+    public Utf8OutputStreamWriter(OutputStream out) {
+        this.out = out;
+        byte[] buf = POOL.poll();
+        this.buffer = buf != null ? buf : new byte[BUFFER_SIZE];
+        this.pooled = true;
+    }
+
+    /**
+     * Creates a writer with its own buffer of the given size.
+     *
+     * @param out The OutputStream to write UTF-8 bytes to
+     * @param bufferSize the size of the buffer, at least 4 bytes so that any character fits
+     */
+    public Utf8OutputStreamWriter(OutputStream out, int bufferSize) {
+        if (bufferSize < 4) {
+            throw new IllegalArgumentException("Buffer size must be at least 4: " + bufferSize);
+        }
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+        this.pooled = false;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (highSurrogate == 0) {
+                // ASCII fast path, copy as much as fits in the buffer.
+                byte[] buf = buffer;
+                int pos = count;
+                int limit = Math.min(end, i + (buf.length - pos));
+                char c;
+                while (i < limit && (c = cbuf[i]) < 0x80) {
+                    buf[pos++] = (byte) c;
+                    i++;
+                }
+                count = pos;
+                if (i == end) {
+                    break;
+                }
+                if (pos == buf.length) {
+                    flushBuffer();
+                    continue;
+                }
+            }
+            encode(cbuf[i++]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            if (highSurrogate == 0) {
+                // ASCII fast path, copy as much as fits in the buffer.
+                byte[] buf = buffer;
+                int pos = count;
+                int limit = Math.min(end, i + (buf.length - pos));
+                char c;
+                while (i < limit && (c = str.charAt(i)) < 0x80) {
+                    buf[pos++] = (byte) c;
+                    i++;
+                }
+                count = pos;
+                if (i == end) {
+                    break;
+                }
+                if (pos == buf.length) {
+                    flushBuffer();
+                    continue;
+                }
+            }
+            encode(str.charAt(i++));
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        if (csq == null) {
+            write("null");
+        } else {
+            append(csq, 0, csq.length());
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            csq = "null";
+        }
+        if (csq instanceof String) {
+            write((String) csq, start, end - start);
+        } else {
+            ensureOpen();
+            for (int i = start; i < end; i++) {
+                encode(csq.charAt(i));
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    /**
+     * Writes out the buffer and flushes the wrapped stream. A trailing high surrogate is kept until its pair
+     * arrives.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                put(REPLACEMENT);
+            }
+            flushBuffer();
+            out.close();
+        } finally {
+            byte[] buf = buffer;
+            buffer = null;
+            if (pooled) {
+                POOL.offer(buf);
+            }
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                ensureCapacity(4);
+                byte[] buf = buffer;
+                buf[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            put(REPLACEMENT);
+        }
+
+        if (c < 0x80) {
+            put((byte) c);
+        } else if (c < 0x800) {
+            ensureCapacity(2);
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            put(REPLACEMENT);
+        } else {
+            ensureCapacity(3);
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        ensureCapacity(1);
+        buffer[count++] = b;
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (count + bytes > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.javascript;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+import org.auraframework.util.DiskCache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.javascript.jscomp.Compiler;
+
+/**
+ * A content addressed cache of Closure output.
+ *
+ * Entries are keyed by a hash of the source text, the {@link JavascriptWriter} mode and the Closure compiler
+ * version, so unchanged code is never compiled twice. There is an in-memory tier, bounded by the number of
+ * characters held (<code>aura.javascript.minifiedCacheSize</code>, a few megabytes by default), and an optional
+ * on-disk tier that survives restarts. Only output that compiled without
+ * errors or warnings is cached, so callers see exactly the same errors they would without the cache.
+ *
+ * The disk tier is off unless the <code>aura.javascript.minifiedCacheDir</code> system property names a
+ * directory. That directory must be private to the current user, see {@link DiskCache}, and is bounded by
+ * <code>aura.javascript.minifiedCacheDiskSize</code> bytes.
+ */
+public class MinifiedJavascriptCache {
+    private static final Logger logger = Logger.getLogger(MinifiedJavascriptCache.class);
+
+    /** Default size of the memory tier, in characters of minified code */
+    private static final long DEFAULT_MEMORY_SIZE = 4L * 1024 * 1024;
+
+    /** Default size of the disk tier, in bytes */
+    private static final long DEFAULT_DISK_SIZE = 256L * 1024 * 1024;
+
+    private static final MinifiedJavascriptCache INSTANCE = new MinifiedJavascriptCache(getDefaultDirectory(),
+            getSize("aura.javascript.minifiedCacheSize", DEFAULT_MEMORY_SIZE),
+            getSize("aura.javascript.minifiedCacheDiskSize", DEFAULT_DISK_SIZE));
+
+    private final Cache<String, Entry> memory;
+    private final DiskCache disk;
+    private final String compilerVersion;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong compileNanos = new AtomicLong();
+    private final AtomicLong savedNanos = new AtomicLong();
+
+    /**
+     * Create a cache.
+     *
+     * @param directory the directory for the disk tier, or null for memory only.
+     * @param memorySize the maximum number of characters to keep in memory.
+     * @param diskSize the maximum number of bytes to keep on disk.
+     */
+    public MinifiedJavascriptCache(File directory, long memorySize, long diskSize) {
+        this.memory = CacheBuilder.newBuilder()
+                .maximumWeight(memorySize)
+                .weigher((String key, Entry entry) -> entry.code.length())
+                .build();
+        this.disk = openDisk(directory, diskSize);
+        this.compilerVersion = getCompilerVersion();
+    }
+
+    private static DiskCache openDisk(File directory, long diskSize) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            return DiskCache.open(directory, diskSize);
+        } catch (IOException e) {
+            logger.warn("Not caching minified javascript on disk", e);
+            return null;
+        }
+    }
+
+    /**
+     * The process wide cache.
+     */
+    public static MinifiedJavascriptCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Compress javascript with the given writer, using cached output when the same source has already been
+     * compressed in the same mode.
+     *
+     * @param writer the mode to compress with.
+     * @param in Javascript source.
+     * @param out Write the compressed source to this Writer.
+     * @param filename Name used for error reporting.
+     * @return the errors and warnings from compilation, always empty when the output came from the cache.
+     */
+    public List<JavascriptProcessingError> compress(JavascriptWriter writer, String in, Writer out, String filename)
+            throws IOException {
+        String key = getKey(writer, in);
+
+        Entry entry = memory.getIfPresent(key);
+        if (entry != null) {
+            memoryHits.incrementAndGet();
+        } else {
+            entry = readFromDisk(key);
+            if (entry != null) {
+                diskHits.incrementAndGet();
+                memory.put(key, entry);
+            }
+        }
+        if (entry != null) {
+            savedNanos.addAndGet(entry.compileNanos);
+            out.write(entry.code);
+            return new ArrayList<>();
+        }
+
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        StringWriter sw = new StringWriter();
+        List<JavascriptProcessingError> errors = writer.compress(in, sw, filename);
+        long elapsed = System.nanoTime() - start;
+        compileNanos.addAndGet(elapsed);
+
+        String code = sw.toString();
+        if (errors == null || errors.isEmpty()) {
+            entry = new Entry(code, elapsed);
+            memory.put(key, entry);
+            writeToDisk(key, entry);
+        }
+        out.write(code);
+        return errors;
+    }
+
+    /**
+     * @return the number of compressions served from memory.
+     */
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * @return the number of compressions served from disk.
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * @return the number of compressions that had to run Closure.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the time spent in Closure on misses, in nanoseconds.
+     */
+    public long getCompileNanos() {
+        return compileNanos.get();
+    }
+
+    /**
+     * @return the Closure time avoided by hits, in nanoseconds, as measured when each entry was compiled.
+     */
+    public long getSavedNanos() {
+        return savedNanos.get();
+    }
+
+    /**
+     * Drop the memory tier. The disk tier is content addressed and never goes stale.
+     */
+    public void invalidateMemory() {
+        memory.invalidateAll();
+    }
+
+    String getKey(JavascriptWriter writer, String in) {
+        return Hashing.sha256().newHasher()
+                .putString(writer.name(), StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(compilerVersion, StandardCharsets.UTF_8).putByte((byte) 0)
+                .putString(in, StandardCharsets.UTF_8)
+                .hash().toString();
+    }
+
+    /**
+     * Read an entry from the disk tier. The first line holds the compile time, the rest is the code.
+     */
+    private Entry readFromDisk(String key) {
+        if (disk == null) {
+            return null;
+        }
+        byte[] payload = disk.get(key);
+        if (payload == null) {
+            return null;
+        }
+        String content = new String(payload, StandardCharsets.UTF_8);
+        int newline = content.indexOf('\n');
+        if (newline < 0) {
+            return null;
+        }
+        try {
+            return new Entry(content.substring(newline + 1), Long.parseLong(content.substring(0, newline)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, Entry entry) {
+        if (disk == null) {
+            return;
+        }
+        disk.put(key, (entry.compileNanos + "\n" + entry.code).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String getCompilerVersion() {
+        try {
+            return Compiler.getReleaseVersion();
+        } catch (RuntimeException e) {
+            // no version resource, fall back to the jar.
+            String version = Compiler.class.getPackage().getImplementationVersion();
+            return version != null ? version : "unknown";
+        }
+    }
+
+    private static File getDefaultDirectory() {
+        String prop = System.getProperty("aura.javascript.minifiedCacheDir");
+        if (prop == null || prop.isEmpty()) {
+            return null;
+        }
+        return new File(prop);
+    }
+
+    private static long getSize(String name, long defaultSize) {
+        String prop = System.getProperty(name);
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Long.parseLong(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return defaultSize;
+    }
+
+    private static final class Entry {
+        private final String code;
+        private final long compileNanos;
+
+        private Entry(String code, long compileNanos) {
+            this.code = code;
+            this.compileNanos = compileNanos;
+        }
+    }
+}
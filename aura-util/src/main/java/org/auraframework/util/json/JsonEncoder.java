@@ -18,12 +18,12 @@ package org.auraframework.util.json;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Deque;
@@ -37,9 +37,9 @@ import javax.annotation.Nonnull;
 
 import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.UncloseableOutputStream;
+import org.auraframework.util.Utf8OutputStreamWriter;
 import org.json.JSONObject;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.io.CountingOutputStream;
@@ -63,8 +63,11 @@ import com.google.common.io.CountingOutputStream;
  * performance. The problem is that {@link #writeMapBegin()} and
  * {@link #writeArrayBegin()} are called hundreds of thousands of times a
  * second, meaning that creating and discarding objects for each one is too
- * expensive. This means that we use a separate stack in the case that we are
- * not formatting to avoid the allocation of the object.
+ * expensive. This means that the stack is kept in parallel arrays indexed by
+ * depth, and the indent strings are only built when they are asked for.
+ *
+ * Constant keys can be written as a {@link JsonKey}, which is escaped once
+ * when it is created rather than on every write.
  *
  * @see <a
  *      href="https://sites.google.com/a/salesforce.com/user-interface/documentation/json">SFDC
@@ -81,40 +84,8 @@ public class JsonEncoder implements Json {
 
     public static final String MIME_TYPE = "application/json";
 
-    /**
-     * A class to track indents when formatting json.
-     */
-    private static class IndentEntry {
-        public IndentEntry(IndentType type, String indent) {
-            this.type = type;
-            this.first = true;
-            this.indent = indent + type.getIndent();
-        }
-
-        private final IndentType type;
-        private boolean first;
-        private final String indent;
-
-        public boolean needSeparator() {
-            if (!this.type.isSeparated()) {
-                throw new JsonException("Cannot use separator on " + this.type);
-            }
-            if (this.first) {
-                this.first = false;
-                return false;
-            }
-            return true;
-        }
-
-        public String getIndent() {
-            return this.indent;
-        }
+    private static final int INITIAL_DEPTH = 16;
 
-        public IndentType getType() {
-            return this.type;
-        }
-    }
-    
     /**
      * An Appendable wrapper class that provides the optional functionality to capture a
      * subsequence of the serialized content, via {@link JsonEncoder#startCapturing()}
@@ -188,13 +159,126 @@ public class JsonEncoder implements Json {
         }
     }
 
+    /**
+     * An Appendable that escapes everything written to it as the contents of
+     * a JSON string, the same way {@link JsonEncoder#writeString(Object)} does,
+     * so that a string value can be streamed without building it first.
+     */
+    private static class EscapingAppendable implements Appendable {
+        private static final String HEX = "0123456789abcdef";
+
+        private final Appendable out;
+
+        /** The last character written, for escaping '&lt;/' */
+        private char previous;
+
+        private EscapingAppendable(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            if (csq == null) {
+                csq = "null";
+            }
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            if (csq == null) {
+                csq = "null";
+            }
+            int run = start;
+            for (int i = start; i < end; i++) {
+                char c = csq.charAt(i);
+                if (!isPlain(c)) {
+                    if (run < i) {
+                        out.append(csq, run, i);
+                    }
+                    escape(c);
+                    run = i + 1;
+                } else {
+                    previous = c;
+                }
+            }
+            if (run < end) {
+                out.append(csq, run, end);
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (isPlain(c)) {
+                out.append(c);
+                previous = c;
+            } else {
+                escape(c);
+            }
+            return this;
+        }
+
+        private boolean isPlain(char c) {
+            return c >= ' ' && c != '"' && c != '\\' && c != '/' && (c < '\u0080' || c >= '\u00a0')
+                    && (c < '\u2000' || c >= '\u2100');
+        }
+
+        /**
+         * Write an escaped character, and remember it unless it was dropped.
+         */
+        private void escape(char c) throws IOException {
+            if (c == '\u0000') {
+                // dropped, as escapeForJSONString does
+                return;
+            }
+            char before = previous;
+            previous = c;
+            switch (c) {
+            case '"':
+            case '\\':
+                out.append('\\').append(c);
+                return;
+            case '/':
+                if (before == '<') {
+                    out.append('\\');
+                }
+                out.append(c);
+                return;
+            case '\b':
+                out.append("\\b");
+                return;
+            case '\t':
+                out.append("\\t");
+                return;
+            case '\n':
+            case '\u2028':
+                out.append("\\n");
+                return;
+            case '\f':
+                out.append("\\f");
+                return;
+            case '\r':
+                out.append("\\r");
+                return;
+            default:
+                out.append("\\u").append(HEX.charAt((c >> 12) & 0xF)).append(HEX.charAt((c >> 8) & 0xF))
+                        .append(HEX.charAt((c >> 4) & 0xF)).append(HEX.charAt(c & 0xF));
+            }
+        }
+    }
+
     private final JsonSerializationContext serializationContext;
     private final Appendable out;
     private final CapturableAppendable cacheableOut;
-    private final ArrayDeque<IndentEntry> indentStack = new ArrayDeque<>();
+    private IndentType[] indentTypes = new IndentType[INITIAL_DEPTH];
+    private boolean[] indentFirst = new boolean[INITIAL_DEPTH];
+    private String[] indents = new String[INITIAL_DEPTH];
+    private int depth;
     private final DataOutputStream binaryOutput;
     private CountingOutputStream currentBinaryStream;
     private long currentBinaryStreamLength;
+    private boolean inString;
 
     /**
      * Create a Json Serialization context object that maintains information
@@ -371,7 +455,11 @@ public class JsonEncoder implements Json {
      * <br>
      * Note that you will need to call {@link #close()} when you are done to
      * ensure that all characters have been written out to the given
-     * OutputStream. Otherwise, some characters might be missing at the end.
+     * OutputStream. Otherwise, some characters might be missing at the end.<br>
+     * <br>
+     * Characters are encoded straight to UTF-8 bytes by a
+     * {@link Utf8OutputStreamWriter}, and reach the OutputStream in large
+     * buffered writes.
      *
      * @param out The OutputStream to write the serialized objects to using
      *            UTF-8. This must not be null.
@@ -383,7 +471,7 @@ public class JsonEncoder implements Json {
         if (out == null) {
             throw new IllegalArgumentException("out must not be null");
         }
-        final Writer writer = new OutputStreamWriter(out, Charsets.UTF_8);
+        final Writer writer = new Utf8OutputStreamWriter(out);
         return new JsonEncoder(writer, out, context);
     }
 
@@ -419,19 +507,23 @@ public class JsonEncoder implements Json {
      *
      * See the notes on performance on the class above.
      *
-     * This either creates a new IndentEntry and pushes a value on the boolean
-     * stack, or it just uses the boolean stack (in the case of not pretty
-     * printing).
+     * This only records the type at the new depth, the indent string is built
+     * by {@link #getIndent()} when it is needed.
      *
      * @param type the type of indent to push.
      */
     @Override
     public void pushIndent(IndentType type) {
-        if (this.indentStack.isEmpty()) {
-            this.indentStack.push(new IndentEntry(type, ""));
-        } else {
-            this.indentStack.push(new IndentEntry(type, this.indentStack.peek().getIndent()));
+        if (this.depth == this.indentTypes.length) {
+            int length = this.depth * 2;
+            this.indentTypes = Arrays.copyOf(this.indentTypes, length);
+            this.indentFirst = Arrays.copyOf(this.indentFirst, length);
+            this.indents = Arrays.copyOf(this.indents, length);
         }
+        this.indentTypes[this.depth] = type;
+        this.indentFirst[this.depth] = true;
+        this.indents[this.depth] = null;
+        this.depth++;
     }
 
     /**
@@ -442,10 +534,11 @@ public class JsonEncoder implements Json {
      */
     @Override
     public void popIndent(IndentType type, String message) {
-        if (this.indentStack.isEmpty()) {
+        if (this.depth == 0) {
             throw new JsonException("Empty indent stack: " + message);
         }
-        if (!type.equals(this.indentStack.pop().getType())) {
+        this.depth--;
+        if (type != this.indentTypes[this.depth]) {
             throw new JsonException("Mismatched indent stack: " + message);
         }
     }
@@ -457,11 +550,36 @@ public class JsonEncoder implements Json {
      */
     @Override
     public String getIndent() {
-        if (this.indentStack.isEmpty()) {
+        if (this.depth == 0) {
             return "";
-        } else {
-            return this.indentStack.peek().getIndent();
         }
+        int top = this.depth - 1;
+        if (this.indents[top] == null) {
+            int level = top;
+            while (level > 0 && this.indents[level - 1] == null) {
+                level--;
+            }
+            for (; level <= top; level++) {
+                String parent = level > 0 ? this.indents[level - 1] : "";
+                this.indents[level] = parent + this.indentTypes[level].getIndent();
+            }
+        }
+        return this.indents[top];
+    }
+
+    /**
+     * Check if the current map/array needs a separator before the next entry.
+     */
+    private boolean needSeparator() {
+        int top = this.depth - 1;
+        if (!this.indentTypes[top].isSeparated()) {
+            throw new JsonException("Cannot use separator on " + this.indentTypes[top]);
+        }
+        if (this.indentFirst[top]) {
+            this.indentFirst[top] = false;
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -536,8 +654,8 @@ public class JsonEncoder implements Json {
      */
     @Override
     public void writeComma() throws IOException {
-        if (!this.indentStack.isEmpty()) {
-            if (this.indentStack.peek().needSeparator()) {
+        if (this.depth != 0) {
+            if (needSeparator()) {
                 cacheableOut.append(",");
                 // Special handling of pretty print for collections (arrays and objects)
                 // to separate the items on individual lines.
@@ -735,6 +853,9 @@ public class JsonEncoder implements Json {
      * Write a partial Map Entry -- everything except the value. This is useful
      * when the value requires special serialization.
      *
+     * A {@link JsonKey} or {@link ApplicationKey} is appended as it was
+     * encoded when it was created.
+     *
      * @param key
      * @throws IOException
      * @throws JsonSerializerNotFoundException if a serializer is not found for the key
@@ -743,9 +864,22 @@ public class JsonEncoder implements Json {
     public void writeMapKey(Object key) throws IOException {
         writeComma();
         writeIndent();
-        JsonSerializer<Object> serializer = serializationContext.getSerializer(key);
-        if (serializer == null) {
-            throw new JsonSerializerNotFoundException(key);
+        if (key instanceof JsonKey) {
+            cacheableOut.append(((JsonKey) key).getEncoded());
+            writeMapSeparator();
+            return;
+        }
+        if (key instanceof ApplicationKey) {
+            cacheableOut.append(((ApplicationKey) key).getEncoded());
+            writeMapSeparator();
+            return;
+        }
+        if (!(key instanceof String || key instanceof Number || key instanceof Boolean)) {
+            // The key is written as a string, the lookup only checks that it could be serialized.
+            JsonSerializer<Object> serializer = serializationContext.getSerializer(key);
+            if (serializer == null) {
+                throw new JsonSerializerNotFoundException(key);
+            }
         }
         if (key == null) {
             cacheableOut.append("\"null\"");
@@ -835,6 +969,36 @@ public class JsonEncoder implements Json {
         currentBinaryStreamLength = 0;
     }
 
+    /**
+     * Start a string value and return an Appendable that the caller can write
+     * its contents to. Everything appended is escaped as it is written, so the
+     * result is the same as {@link #writeString(Object)} on the whole content,
+     * without building it first. Call {@link #writeStringEnd()} when done.
+     *
+     * @return The Appendable that the caller can write the string contents to
+     */
+    @Override
+    public Appendable writeStringBegin() throws IOException {
+        if (inString) {
+            throw new IllegalStateException("A string was already started");
+        }
+        inString = true;
+        cacheableOut.append('"');
+        return new EscapingAppendable(cacheableOut);
+    }
+
+    /**
+     * Ends the current string value.
+     */
+    @Override
+    public void writeStringEnd() throws IOException {
+        if (!inString) {
+            throw new IllegalStateException("String was not started");
+        }
+        inString = false;
+        cacheableOut.append('"');
+    }
+
     /**
      * Writes out any buffered characters in the OutputStreamWriter to the
      * binary OutputStream and then closes the OutputStream.<br>
@@ -885,7 +1049,7 @@ public class JsonEncoder implements Json {
     private boolean isFormattingRootItems() {
         // Pretty print of collections has been requested and we are at level 1,
         // which means the items of the root collection.
-        return serializationContext.formatRootItems() && indentStack.size() == 1;
+        return serializationContext.formatRootItems() && depth == 1;
     }
 
     @Override
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import org.auraframework.util.AuraTextUtil;
+import org.json.JSONObject;
+
+/**
+ * A constant map key, escaped and quoted once when it is created.
+ *
+ * Serializers that write the same keys for every object should keep them in
+ * static fields and pass them to {@link Json#writeMapKey(Object)} or
+ * {@link Json#writeMapEntry(Object, Object)}, the encoder then only appends
+ * the encoded form.
+ */
+public final class JsonKey {
+    private final String name;
+    private final String encoded;
+
+    private JsonKey(String name) {
+        this.name = name;
+        this.encoded = JSONObject.quote(AuraTextUtil.escapeForJSONString(name));
+    }
+
+    /**
+     * Create a key.
+     *
+     * @param name the key, as it should appear in the output.
+     * @throws IllegalArgumentException if the name is null or empty.
+     */
+    public static JsonKey of(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("A JSON key must not be empty");
+        }
+        return new JsonKey(name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the key, escaped and quoted.
+     */
+    public String getEncoded() {
+        return encoded;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof JsonKey && name.equals(((JsonKey) obj).name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
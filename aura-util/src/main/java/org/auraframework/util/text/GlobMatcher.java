@@ -69,6 +69,17 @@ public class GlobMatcher implements Serializable {
         return this.all;
     }
 
+    /**
+     * Get the literal text that any match starts with, lower cased.
+     *
+     * This is everything before the first '*', the whole pattern for a constant, and empty for 'all'. It allows
+     * callers with sorted keys to only look at the range of keys that can match.
+     */
+    public String getPrefix() {
+        int star = this.original.indexOf('*');
+        return (star < 0 ? this.original : this.original.substring(0, star)).toLowerCase();
+    }
+
     public boolean match(String toMatch) {
         if (this.all) {
             return true;
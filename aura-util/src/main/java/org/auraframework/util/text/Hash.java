@@ -17,20 +17,131 @@ package org.auraframework.util.text;
 
 import org.apache.commons.codec.binary.Base64;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
- * A wrapper around an MD5 hash. This functions as a future, being created
- * before the hash value is actually computed.
+ * A wrapper around a hash, MD5 unless an {@link Algorithm} is given. This
+ * functions as a future, being created before the hash value is actually
+ * computed.
+ *
+ * UIDs and cache keys, which are only ever compared with values computed by
+ * this same code, should use {@link #getUidAlgorithm()}. That is a fast
+ * non-cryptographic hash by default, and can be set back to MD5 with the
+ * <code>aura.hash.uidAlgorithm</code> system property.
  */
 public class Hash {
+    /**
+     * The functions a hash can be computed with. Both give 128 bits.
+     */
+    public enum Algorithm {
+        /**
+         * MD5, for hashes that have to match ones computed elsewhere.
+         */
+        MD5 {
+            @Override
+            Digest newDigest() {
+                return new MessageDigestDigest(newMd5());
+            }
+        },
+
+        /**
+         * 128 bit murmur3. Much cheaper than MD5, but not cryptographic, so
+         * only for UIDs and cache keys.
+         */
+        MURMUR3_128 {
+            @Override
+            Digest newDigest() {
+                return new HasherDigest(Hashing.murmur3_128().newHasher());
+            }
+        };
+
+        abstract Digest newDigest();
+
+        /**
+         * Hash the whole of an input.
+         */
+        public byte[] hash(byte[] input) {
+            Digest digest = newDigest();
+            digest.update(input, 0, input.length);
+            return digest.digest();
+        }
+    }
+
+    /**
+     * An incremental hash computation.
+     */
+    interface Digest {
+        void update(byte[] input, int offset, int length);
+
+        void update(String input);
+
+        byte[] digest();
+    }
+
+    private static class MessageDigestDigest implements Digest {
+        private final MessageDigest digest;
+
+        MessageDigestDigest(MessageDigest digest) {
+            this.digest = digest;
+        }
+
+        @Override
+        public void update(byte[] input, int offset, int length) {
+            digest.update(input, offset, length);
+        }
+
+        @Override
+        public void update(String input) {
+            digest.update(input.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public byte[] digest() {
+            return digest.digest();
+        }
+    }
+
+    private static class HasherDigest implements Digest {
+        private final Hasher hasher;
+
+        HasherDigest(Hasher hasher) {
+            this.hasher = hasher;
+        }
+
+        @Override
+        public void update(byte[] input, int offset, int length) {
+            hasher.putBytes(input, offset, length);
+        }
+
+        @Override
+        public void update(String input) {
+            hasher.putString(input, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] digest() {
+            return hasher.hash().asBytes();
+        }
+    }
+
+    /**
+     * An MD5 digest to clone, which is much cheaper than looking one up by name.
+     */
+    private static final MessageDigest MD5_PROTOTYPE = getMd5Instance();
+
+    private static final Algorithm UID_ALGORITHM = readUidAlgorithm();
+
     /**
      * base64 urlsafe encoded md5 hash
      */
@@ -69,18 +180,14 @@ public class Hash {
             value = null;
             return;
         }
-        try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            byte[] buffer = new byte[4096];
-            int read = bytecode.read(buffer);
-            while (read >= 0) {
-                digest.update(buffer, 0, read);
-                read = bytecode.read(buffer);
-            }
-            value = Base64.encodeBase64URLSafeString(digest.digest());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD-5 is a required hash algorithm, but isn't defined", e);
+        MessageDigest digest = newMd5();
+        byte[] buffer = new byte[4096];
+        int read = bytecode.read(buffer);
+        while (read >= 0) {
+            digest.update(buffer, 0, read);
+            read = bytecode.read(buffer);
         }
+        value = Base64.encodeBase64URLSafeString(digest.digest());
     }
 
     /**
@@ -103,6 +210,41 @@ public class Hash {
         value = null;
     }
 
+    /**
+     * @return the algorithm for UIDs and cache keys.
+     */
+    public static Algorithm getUidAlgorithm() {
+        return UID_ALGORITHM;
+    }
+
+    private static Algorithm readUidAlgorithm() {
+        String prop = System.getProperty("aura.hash.uidAlgorithm");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Algorithm.valueOf(prop.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return Algorithm.MURMUR3_128;
+    }
+
+    private static MessageDigest getMd5Instance() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 is a required MessageDigest algorithm, but is not registered here.");
+        }
+    }
+
+    private static MessageDigest newMd5() {
+        try {
+            return (MessageDigest) MD5_PROTOTYPE.clone();
+        } catch (CloneNotSupportedException e) {
+            return getMd5Instance();
+        }
+    }
+
     @Override
     public String toString() {
         if (value == null) {
@@ -153,8 +295,8 @@ public class Hash {
      */ 
     public void setHash(Reader reader) throws IOException, IllegalStateException {
         try {
-            MessageDigest digest = MessageDigest.getInstance("MD5");
-            Charset utf8 = Charset.forName("UTF-8");
+            MessageDigest digest = newMd5();
+            Charset utf8 = StandardCharsets.UTF_8;
             CharBuffer cbuffer = CharBuffer.allocate(2048);
             while (reader.read(cbuffer) >= 0) {
                 cbuffer.flip();
@@ -163,24 +305,23 @@ public class Hash {
                 cbuffer.clear();
             }
             setHash(digest.digest());
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 is a required MessageDigest algorithm, but is not registered here.");
         } finally {
             reader.close();
         }
     }
 
     public static class StringBuilder {
-        private final MessageDigest digest;
-        private final Charset utf8;
+        private final Digest digest;
 
+        /**
+         * A builder for an MD5 hash.
+         */
         public StringBuilder() {
-            utf8 = Charset.forName("UTF-8");
-            try {
-                digest = MessageDigest.getInstance("MD5");
-            } catch (NoSuchAlgorithmException e) {
-                throw new RuntimeException("MD5 is a required MessageDigest algorithm, but is not registered here.");
-            }
+            this(Algorithm.MD5);
+        }
+
+        public StringBuilder(Algorithm algorithm) {
+            digest = algorithm.newDigest();
         }
 
         /**
@@ -188,8 +329,7 @@ public class Hash {
          */
         public StringBuilder addString(String string) {
             if (string != null) {
-                ByteBuffer bytes = utf8.encode(string);
-                digest.update(bytes);
+                digest.update(string);
             }
             return this;
         }
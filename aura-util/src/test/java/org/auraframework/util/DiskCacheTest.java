@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DiskCacheTest {
+
+    private static final String KEY = "0123456789abcdef";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEntrySurvivesReopen() throws Exception {
+        File directory = new File(folder.getRoot(), "cache");
+        DiskCache.open(directory, 1024).put(KEY, bytes("payload"));
+
+        assertArrayEquals(bytes("payload"), DiskCache.open(directory, 1024).get(KEY));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(directory.toPath())));
+    }
+
+    @Test
+    public void testCorruptEntryIsDeleted() throws Exception {
+        File directory = new File(folder.getRoot(), "cache");
+        DiskCache cache = DiskCache.open(directory, 1024);
+        cache.put(KEY, bytes("payload"));
+        Path file = directory.toPath().resolve(KEY.substring(0, 2)).resolve(KEY);
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        Files.write(file, content.replace("payload", "evil").getBytes(StandardCharsets.UTF_8));
+
+        assertNull(cache.get(KEY));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testSharedDirectoryIsRefused() throws Exception {
+        File directory = folder.newFolder();
+        Files.setPosixFilePermissions(directory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+
+        try {
+            DiskCache.open(directory, 1024);
+            fail("Expected a directory open to other users to be refused");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("open to other users"));
+        }
+    }
+
+    @Test
+    public void testSymbolicLinkIsRefused() throws Exception {
+        File target = new File(folder.getRoot(), "target");
+        DiskCache.open(target, 1024);
+        Path link = Files.createSymbolicLink(new File(folder.getRoot(), "link").toPath(), target.toPath());
+
+        try {
+            DiskCache.open(link.toFile(), 1024);
+            fail("Expected a symbolic link to be refused");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testOldestEntriesArePruned() throws Exception {
+        File directory = new File(folder.getRoot(), "cache");
+        DiskCache large = DiskCache.open(directory, 10000);
+        byte[] payload = new byte[200];
+        for (int i = 0; i < 10; i++) {
+            String key = String.format("%02x", i) + KEY;
+            large.put(key, payload);
+            Files.setLastModifiedTime(directory.toPath().resolve(key.substring(0, 2)).resolve(key),
+                    FileTime.fromMillis(1000L * (i + 1)));
+        }
+
+        DiskCache cache = DiskCache.open(directory, 1000);
+        cache.put("0a" + KEY, payload);
+
+        assertTrue("Cache grew to " + cache.getBytes(), cache.getBytes() <= 1000);
+        assertArrayEquals(payload, cache.get("0a" + KEY));
+        assertArrayEquals(payload, cache.get("09" + KEY));
+        assertNull(cache.get("00" + KEY));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyMustBeHex() throws Exception {
+        DiskCache.open(new File(folder.getRoot(), "cache"), 1024).get("../escape");
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
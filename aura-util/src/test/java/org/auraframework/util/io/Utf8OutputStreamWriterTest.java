@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Random;
+
+import org.auraframework.util.Utf8OutputStreamWriter;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Test cases for the Utf8OutputStreamWriter
+ */
+public class Utf8OutputStreamWriterTest {
+
+    private static final String MIXED = "abc \u00e9\u00fc \u4e2d\u6587 \ud83d\ude00 {\"key\":\"value\"}";
+
+    @Test
+    public void testMatchesStringEncoding() throws Exception {
+        assertArrayEquals(MIXED.getBytes(Charsets.UTF_8), write(MIXED, 1024));
+    }
+
+    @Test
+    public void testSmallBufferMatchesStringEncoding() throws Exception {
+        // every multi-byte character has to cross a buffer boundary at some point
+        for (int size = 4; size < 12; size++) {
+            assertArrayEquals("buffer size " + size, MIXED.getBytes(Charsets.UTF_8),
+                    write(MIXED, size));
+        }
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossWrites() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(bytes)) {
+            writer.write("a\ud83d");
+            writer.append('\ude00');
+            writer.write("b");
+        }
+        assertArrayEquals("a\ud83d\ude00b".getBytes(Charsets.UTF_8), bytes.toByteArray());
+    }
+
+    @Test
+    public void testUnpairedSurrogatesMatchOutputStreamWriter() throws Exception {
+        String[] inputs = { "a\ud83db", "a\ude00b", "trailing\ud83d", "\ude00\ud83d" };
+        for (String input : inputs) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(expected, Charsets.UTF_8)) {
+                writer.write(input);
+            }
+            assertArrayEquals(input, expected.toByteArray(), write(input, 1024));
+        }
+    }
+
+    @Test
+    public void testRandomTextMatchesOutputStreamWriter() throws Exception {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 7) {
+                sb.append((char) (0x20 + random.nextInt(0x5f)));
+            } else if (kind < 9) {
+                sb.append((char) (0x80 + random.nextInt(0xd000)));
+            } else {
+                sb.appendCodePoint(0x10000 + random.nextInt(0x1000));
+            }
+        }
+        String text = sb.toString();
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(expected, Charsets.UTF_8)) {
+            writer.write(text);
+        }
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(actual, 100)) {
+            // mix the different write methods
+            writer.write(text, 0, 3000);
+            writer.write(text.toCharArray(), 3000, 3000);
+            writer.append(new StringBuilder(text), 6000, text.length());
+        }
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
+
+    @Test
+    public void testRandomSplitsMatchOutputStreamWriter() throws Exception {
+        // pairs, lone surrogates and characters on every length boundary, cut at random points between writes
+        char[] chars = { 'a', '"', '\u00e9', '\u07ff', '\u0800', '\u20ac', '\uffff', '\ud83d', '\ude00', '\ud800',
+                '\udfff' };
+        Random random = new Random(42);
+        for (int round = 0; round < 2000; round++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int i = 0; i < length; i++) {
+                sb.append(chars[random.nextInt(chars.length)]);
+            }
+            String text = sb.toString();
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(expected, Charsets.UTF_8)) {
+                writer.write(text);
+            }
+
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            try (Writer writer = new Utf8OutputStreamWriter(actual, 4 + random.nextInt(8))) {
+                int i = 0;
+                while (i < text.length()) {
+                    int len = Math.min(text.length() - i, 1 + random.nextInt(5));
+                    switch (random.nextInt(4)) {
+                    case 0:
+                        writer.write(text, i, len);
+                        break;
+                    case 1:
+                        writer.write(text.toCharArray(), i, len);
+                        break;
+                    case 2:
+                        writer.append(new StringBuilder(text), i, i + len);
+                        break;
+                    default:
+                        writer.write(text, i, len);
+                        writer.flush();
+                    }
+                    i += len;
+                }
+            }
+            assertArrayEquals(text, expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    @Test
+    public void testFlushWritesToStream() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Writer writer = new Utf8OutputStreamWriter(bytes);
+        writer.write("abc");
+        assertEquals(0, bytes.size());
+        writer.flush();
+        assertEquals(3, bytes.size());
+        writer.close();
+    }
+
+    @Test
+    public void testWriteAfterCloseFails() throws Exception {
+        Writer writer = new Utf8OutputStreamWriter(new ByteArrayOutputStream());
+        writer.close();
+        writer.close();
+        try {
+            writer.write("abc");
+            fail("Expected an IOException");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Writes the first half of the text one char at a time and the rest in bulk, so both paths are covered.
+     */
+    private static byte[] write(String text, int bufferSize) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(bytes, bufferSize)) {
+            int half = text.length() / 2;
+            for (int i = 0; i < half; i++) {
+                writer.append(text.charAt(i));
+            }
+            writer.write(text, half, text.length() - half);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.javascript;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MinifiedJavascriptCacheTest {
+
+    private static final String SCRIPT = "function foo(someArgument) { return someArgument + 1; }";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSecondCompressIsServedFromMemory() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(null, 1024 * 1024, 0);
+        StringWriter expected = new StringWriter();
+        JavascriptWriter.CLOSURE_SIMPLE.compress(SCRIPT, expected, "filename");
+
+        StringWriter first = new StringWriter();
+        cache.compress(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, first, "filename");
+        StringWriter second = new StringWriter();
+        List<JavascriptProcessingError> errors = cache.compress(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, second,
+                "filename");
+
+        assertTrue("Found compilation errors: " + errors, errors.isEmpty());
+        assertEquals(expected.toString(), first.toString());
+        assertEquals(expected.toString(), second.toString());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getMemoryHits());
+    }
+
+    @Test
+    public void testDiskTierSurvivesNewInstance() throws Exception {
+        File directory = new File(folder.getRoot(), "minified");
+        new MinifiedJavascriptCache(directory, 1024 * 1024, 1024 * 1024).compress(JavascriptWriter.CLOSURE_SIMPLE,
+                SCRIPT, new StringWriter(), "filename");
+
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(directory, 1024 * 1024, 1024 * 1024);
+        StringWriter out = new StringWriter();
+        cache.compress(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT, out, "filename");
+
+        assertEquals(0, cache.getMisses());
+        assertEquals(1, cache.getDiskHits());
+        assertFalse(out.toString().isEmpty());
+    }
+
+    @Test
+    public void testKeyDependsOnWriterMode() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(null, 1024 * 1024, 0);
+
+        assertNotEquals(cache.getKey(JavascriptWriter.CLOSURE_SIMPLE, SCRIPT),
+                cache.getKey(JavascriptWriter.CLOSURE_LIBRARY, SCRIPT));
+    }
+
+    @Test
+    public void testOutputWithErrorsIsNotCached() throws Exception {
+        MinifiedJavascriptCache cache = new MinifiedJavascriptCache(null, 1024 * 1024, 0);
+        String script = "function foo( {";
+
+        List<JavascriptProcessingError> errors = cache.compress(JavascriptWriter.CLOSURE_SIMPLE, script,
+                new StringWriter(), "filename");
+        List<JavascriptProcessingError> again = cache.compress(JavascriptWriter.CLOSURE_SIMPLE, script,
+                new StringWriter(), "filename");
+
+        assertFalse(errors.isEmpty());
+        assertFalse(again.isEmpty());
+        assertEquals(2, cache.getMisses());
+    }
+}
@@ -206,6 +206,89 @@ public class JsonTest extends UnitTestCase {
         }
     }
 
+    @Test
+    public void testWriteSimpleKeysSkipSerializerLookup() throws IOException {
+        JsonEncoder json = new JsonEncoder(new StringBuilder(), null, new DefaultJsonSerializationContext(false, false) {
+            @Override
+            public JsonSerializer<Object> getSerializer(Object o) {
+                fail("should not look up a serializer for " + o);
+                return null;
+            }
+        });
+        json.writeMapBegin();
+        json.writeMapKey("key");
+        json.writeMapKey(1);
+        json.writeMapEnd();
+        assertEquals("{\"key\":,\"1\":}", json.getAppendable().toString());
+    }
+
+    @Test
+    public void testWriteJsonKey() throws IOException {
+        JsonKey key = JsonKey.of("a\"b");
+        JsonEncoder json = new JsonEncoder(new StringBuilder(), null, new NoSerializerContext());
+        json.writeMapBegin();
+        json.writeMapEntry(key, "c");
+        json.writeMapKey(JsonKey.of("d"));
+        json.writeMapEnd();
+        assertEquals("{\"a\\\"b\":\"c\",\"d\":}", json.getAppendable().toString());
+    }
+
+    @Test
+    public void testEmptyJsonKey() {
+        try {
+            JsonKey.of("");
+            fail("should throw exception");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testNestingStackGrows() throws IOException {
+        JsonEncoder json = new JsonEncoder(new StringBuilder(), false);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            json.writeArrayBegin();
+            json.writeComma();
+            json.writeMapBegin();
+            json.writeMapKey("k");
+            expected.append("[{\"k\":");
+        }
+        json.writeValue(1);
+        expected.append('1');
+        for (int i = 0; i < 40; i++) {
+            json.writeMapEnd();
+            json.writeArrayEnd();
+            expected.append("}]");
+        }
+        assertEquals(expected.toString(), json.getAppendable().toString());
+    }
+
+    @Test
+    public void testWriteStringStreamMatchesWriteString() throws IOException {
+        String value = "<div class=\"a\\b\">\n\t</div>\u2028\u0000\u0001\u2029\u00e9 <\u0000/script>";
+        JsonEncoder expected = new JsonEncoder(new StringBuilder(), false);
+        expected.writeString(value);
+
+        JsonEncoder json = new JsonEncoder(new StringBuilder(), false);
+        Appendable out = json.writeStringBegin();
+        out.append(value, 0, 10);
+        out.append(value.charAt(10));
+        out.append(value.substring(11));
+        json.writeStringEnd();
+
+        assertEquals(expected.getAppendable().toString(), json.getAppendable().toString());
+    }
+
+    @Test
+    public void testWriteStringEndWithoutBegin() throws IOException {
+        JsonEncoder json = new JsonEncoder(new StringBuilder(), false);
+        try {
+            json.writeStringEnd();
+            fail("should throw exception");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
     @Test
     public void testWriteMapEnd() throws IOException {
         try {
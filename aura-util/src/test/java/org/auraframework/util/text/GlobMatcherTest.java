@@ -55,6 +55,15 @@ public class GlobMatcherTest {
         Assert.assertTrue("* matches everything", gm.match("AbCd"));
     }
 
+    @Test
+    public void testPrefix() {
+        Assert.assertEquals("", new GlobMatcher("*").getPrefix());
+        Assert.assertEquals("bah", new GlobMatcher("Bah").getPrefix());
+        Assert.assertEquals("bah", new GlobMatcher("BAH*").getPrefix());
+        Assert.assertEquals("b", new GlobMatcher("b*ah*").getPrefix());
+        Assert.assertEquals("", new GlobMatcher("*bah").getPrefix());
+    }
+
     private static String[] ILLEGALS = new String[] { "bah@", "bah.", };
 
     @Test
@@ -219,4 +219,22 @@ public class HashTest {
         builder.addString(null);
         assertHash(builder.build(), true, expected);
     }
+
+    @Test
+    public void testStringBuilderWithAlgorithm() throws Exception {
+        String toHash = "never can say goodbye";
+        Hash murmur = new StringBuilder(Hash.Algorithm.MURMUR3_128).addString("never can ").addString("say goodbye")
+                .build();
+
+        Assert.assertEquals(new Hash(Hash.Algorithm.MURMUR3_128.hash(toHash.getBytes("UTF-8"))), murmur);
+        Assert.assertFalse(murmur.equals(new StringBuilder().addString(toHash).build()));
+        Assert.assertEquals(new StringBuilder().addString(toHash).build(),
+                new Hash(Hash.Algorithm.MD5.hash(toHash.getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void testUidAlgorithm() throws Exception {
+        Assert.assertNotNull(Hash.getUidAlgorithm());
+        Assert.assertEquals(22, new StringBuilder(Hash.getUidAlgorithm()).addString("uid").build().toString().length());
+    }
 }
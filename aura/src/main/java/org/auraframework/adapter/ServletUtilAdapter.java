@@ -25,6 +25,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.http.HttpHeaders;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
@@ -236,7 +237,53 @@ public interface ServletUtilAdapter extends AuraAdapter {
      * Set cache timeout for a resource in milliseconds.
      */
     void setCacheTimeout(HttpServletResponse response, long expiration, boolean immutable);
-    
+
+    /**
+     * Get a weak entity tag for a response that is fully determined by its URL.
+     *
+     * The tag is a hash of the request URI and query string, along with the framework UID, mode, client and requested
+     * locales of the context, so it changes whenever an application or definition UID in the URL does. It is weak
+     * because the content may be sent with any content encoding. Only call this once the UIDs in the URL have been
+     * checked. By default there is no tag, so responses are never answered with '304 Not Modified'.
+     *
+     * @param request the request being served.
+     * @param context the context of the request.
+     * @return the quoted tag, or null if there is none.
+     */
+    default String getResourceETag(HttpServletRequest request, AuraContext context) {
+        return null;
+    }
+
+    /**
+     * Answer a request with '304 Not Modified' if its If-None-Match header matches an entity tag.
+     *
+     * The tags are compared weakly, as If-None-Match requires, so a weak and a strong tag with the same value match.
+     *
+     * @param request the request being served.
+     * @param response the response, given the status and tag on a match.
+     * @param etag the quoted tag of the response that would be sent, may be null.
+     * @return true if the response has been handled, and nothing more should be written.
+     */
+    default boolean checkNotModified(HttpServletRequest request, HttpServletResponse response, String etag) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (etag == null || ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(opaque) || tag.equals("*")) {
+                response.setHeader(HttpHeaders.ETAG, etag);
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * are we in production mode?
      */
@@ -160,6 +160,23 @@ public interface StyleAdapter extends AuraAdapter {
      */
     List<Plugin> getContextualRuntimePlugins();
 
+    /**
+     * Whether a stylesheet can be rendered on its own, without the plugins from
+     * {@link #getContextualRuntimePlugins()}.
+     * <p>
+     * Stylesheets that can are rendered without those plugins, possibly on other threads, and their output is cached
+     * and reused in other combined outputs, so the contextual plugins never see them. Return true only when none of
+     * the given plugins needs to see the stylesheet, e.g. because it contains nothing that they look at. The default
+     * only allows this when there are no contextual plugins.
+     *
+     * @param def the stylesheet.
+     * @param contextualPlugins the plugins returned by {@link #getContextualRuntimePlugins()} for this output.
+     * @return true if the stylesheet can be rendered without the contextual plugins.
+     */
+    default boolean canRenderWithoutContextualPlugins(BaseStyleDef def, List<Plugin> contextualPlugins) {
+        return contextualPlugins.isEmpty();
+    }
+
     /**
      * Returns any extra conditions to be allowed in CSS {@code @}if blocks.
      * <p>
@@ -17,6 +17,7 @@ package org.auraframework.http;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -27,6 +28,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -37,6 +40,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.io.output.StringBuilderWriter;
 import org.apache.commons.lang3.LocaleUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.def.ApplicationDef;
@@ -63,6 +67,7 @@ import org.auraframework.util.json.Json;
 import org.auraframework.util.json.JsonEncoder;
 
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 public class AuraComponentDefinitionServlet extends AuraBaseServlet {
 
@@ -87,6 +92,8 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
     protected ContextService contextService;
     protected ConfigAdapter configAdapter;
 
+    private final ComponentDefinitionResponseCache responseCache = new ComponentDefinitionResponseCache();
+
     @SuppressWarnings("unchecked")
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
@@ -102,6 +109,7 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
         try (final StringBuilderWriter responseStringWriter = new StringBuilderWriter()) {
 
             AuraContext context = contextService.getCurrentContext();
+            String cachedBody = null;
     
             try {
                 if (requestedDescriptors.size() == 0) {
@@ -168,69 +176,32 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
                     response.sendRedirect(redirectUrl.toString());
                     return;
                 }
-    
-                HYDRATION_TYPE hydrationType;
-                if (configAdapter.getDefaultMode() == Mode.PROD) {
-                    hydrationType = HYDRATION_TYPE.one;
-                } else {
-                    // in non prod modes, we want to use hydration in order to make it easier for developers to debug
-                    hydrationType = HYDRATION_TYPE.all;
-                }
 
-                // explicitly invoke the need to have a style context now, rather than later during serialization
-                context.getStyleContext();
-    
-                serverService.writeDefinitions(descriptors.keySet(), responseStringWriter, false, 0, hydrationType, false, requestedUID);
-    
-                try {
-                    definitionService.populateGlobalValues(AuraValueProviderType.LABEL.getPrefix(),
-                            mapDescriptorToDefinition(descriptors.keySet()));
-                } catch (QuickFixException qfe) {
-                    // this should not throw a QFE
-                    loggingService.warn("attempting to populate labels for requested definitions: " + StringUtils.join(requestedDescriptors, ","), qfe);
-                }
-    
-                definitionService.updateLoaded(descriptors.keySet());
-    
-                Set<DefDescriptor<?>> dependencies = new HashSet<>();
-                descriptors.entrySet().stream().forEach((entry)->{
-                    dependencies.addAll(definitionService.getDependencies(entry.getValue()));
-                });
-                dependencies.removeAll(descriptors.keySet());
-    
-                String appUID = definitionService.getUid(null, appDescriptor);
-                dependencies.removeAll(definitionService.getDependencies(appUID));
-    
-                serverService.writeDefinitions(dependencies, responseStringWriter, false, 0, HYDRATION_TYPE.all, false, String.format("%s-%d", requestedUID, dependencies.size()));
-    
-                if (!dependencies.isEmpty()) {
-                    try {
-                        String providerPrefix = AuraValueProviderType.LABEL.getPrefix();
-                        definitionService.populateGlobalValues(providerPrefix, mapDescriptorToDefinition(dependencies));
-                    } catch (QuickFixException qfe) {
-                        // this should not throw a QFE
-                        loggingService.warn("attempting to populate labels for requested definitions: " + StringUtils.join(requestedDescriptors, ","), qfe);
-                    }
-    
-                    for (DefDescriptor<?> descriptor : dependencies) {
-                        definitionService.updateLoaded(descriptor);
+                // The requested UID matches the computed one, so a client with a tag for this URL has this response.
+                String etag = null;
+                if (StringUtils.isNotBlank(requestedUID) && !requestedUID.startsWith("LATEST")) {
+                    etag = servletUtilAdapter.getResourceETag(request, context);
+                    if (servletUtilAdapter.checkNotModified(request, response, etag)) {
+                        return;
                     }
                 }
     
-                // write Value Providers Labels and Global
-                String gvps = serializeGVPs(context);
-                if (StringUtils.isNotEmpty(gvps)) {
-                    responseStringWriter.write("$A.getContext().mergeGVPs(");
-                    responseStringWriter.write(gvps);
-                    responseStringWriter.write(");");
-                }
+                // restricted definitions may differ per user, so only the others are cached.
+                boolean restricted = containsRestrictedDefs(context, descriptors);
+                String appUID = definitionService.getUid(null, appDescriptor);
+                String cacheKey = responseCache.isEnabled() && !restricted && appUID != null
+                        ? getResponseCacheKey(context, appUID, descriptors) : null;
+                cachedBody = writeResponse(context, appDescriptor, appUID, descriptors, requestedDescriptors,
+                        requestedUID, cacheKey, responseStringWriter);
     
-                if(containsRestrictedDefs(context, descriptors)) {
+                if (restricted) {
                     servletUtilAdapter.setLongCachePrivate(response);
                 } else {
                     servletUtilAdapter.setLongCache(response);
                 }
-    
+                if (etag != null) {
+                    response.setHeader(HttpHeaders.ETAG, etag);
+                }
             } catch (Exception e) {
                 @SuppressWarnings("resource")
                 PrintWriter out = response.getWriter();
@@ -261,9 +232,127 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
                 servletUtilAdapter.setNoCache(response);
                 response.setStatus(HttpStatus.SC_OK);
             } finally {
-                response.getWriter().print(responseStringWriter.toString());
+                PrintWriter out = response.getWriter();
+                if (cachedBody != null) {
+                    // the labels and global values of this request follow the cached definitions.
+                    out.print(cachedBody);
+                }
+                out.print(responseStringWriter.toString());
+            }
+        }
+    }
+
+    /**
+     * Write the requested definitions, the dependencies they need that the app does not have, and their labels.
+     *
+     * With a cache key the definitions, which are the same for every user of the app, come from the response cache
+     * and are returned instead of written. The labels and global values are always written for this request, and the
+     * context is updated the same way on a hit as on a miss.
+     *
+     * @return the cached definitions, to be sent before what was written to out, or null if all was written to out.
+     */
+    private String writeResponse(AuraContext context, DefDescriptor<?> appDescriptor, String appUID,
+            Map<DefDescriptor<?>, String> descriptors, List<String> requestedDescriptors, String requestedUID,
+            String cacheKey, Writer out) throws Exception {
+        HYDRATION_TYPE hydrationType;
+        if (configAdapter.getDefaultMode() == Mode.PROD) {
+            hydrationType = HYDRATION_TYPE.one;
+        } else {
+            // in non prod modes, we want to use hydration in order to make it easier for developers to debug
+            hydrationType = HYDRATION_TYPE.all;
+        }
+
+        // explicitly invoke the need to have a style context now, rather than later during serialization
+        context.getStyleContext();
+
+        Set<DefDescriptor<?>> dependencies = new HashSet<>();
+        descriptors.entrySet().stream().forEach((entry)->{
+            dependencies.addAll(definitionService.getDependencies(entry.getValue()));
+        });
+        dependencies.removeAll(descriptors.keySet());
+    
+        dependencies.removeAll(definitionService.getDependencies(appUID));
+
+        String definitions = null;
+        if (cacheKey != null) {
+            definitions = getCachedResponse(appDescriptor.getQualifiedName(), cacheKey, () -> {
+                StringBuilderWriter definitionsOut = new StringBuilderWriter();
+                writeDefinitions(descriptors.keySet(), dependencies, hydrationType, requestedUID, definitionsOut);
+                return new ComponentDefinitionResponseCache.Response(definitionsOut.toString());
+            }).getBody();
+            // writing the definitions takes the context out of preloading, so a hit must too.
+            context.setPreloading(false);
+        } else {
+            writeDefinitions(descriptors.keySet(), dependencies, hydrationType, requestedUID, out);
+        }
+    
+        populateLabels(descriptors.keySet(), requestedDescriptors);
+        definitionService.updateLoaded(descriptors.keySet());
+    
+        if (!dependencies.isEmpty()) {
+            populateLabels(dependencies, requestedDescriptors);
+            for (DefDescriptor<?> descriptor : dependencies) {
+                definitionService.updateLoaded(descriptor);
             }
         }
+    
+        // write Value Providers Labels and Global
+        String gvps = serializeGVPs(context);
+        if (StringUtils.isNotEmpty(gvps)) {
+            out.write("$A.getContext().mergeGVPs(");
+            out.write(gvps);
+            out.write(");");
+        }
+        return definitions;
+    }
+
+    private void writeDefinitions(Set<DefDescriptor<?>> requested, Set<DefDescriptor<?>> dependencies,
+            HYDRATION_TYPE hydrationType, String requestedUID, Writer out) throws IOException, QuickFixException {
+        serverService.writeDefinitions(requested, out, false, 0, hydrationType, false, requestedUID);
+        serverService.writeDefinitions(dependencies, out, false, 0, HYDRATION_TYPE.all, false, String.format("%s-%d", requestedUID, dependencies.size()));
+    }
+
+    private void populateLabels(Set<DefDescriptor<?>> descriptors, List<String> requestedDescriptors) {
+        try {
+            definitionService.populateGlobalValues(AuraValueProviderType.LABEL.getPrefix(),
+                    mapDescriptorToDefinition(descriptors));
+        } catch (QuickFixException qfe) {
+            // this should not throw a QFE
+            loggingService.warn("attempting to populate labels for requested definitions: " + StringUtils.join(requestedDescriptors, ","), qfe);
+        }
+    }
+
+    /**
+     * Get a response from the cache, rethrowing any exception from rendering it.
+     */
+    private ComponentDefinitionResponseCache.Response getCachedResponse(String appReferrer, String key,
+            Callable<ComponentDefinitionResponseCache.Response> loader) throws Exception {
+        try {
+            return responseCache.get(appReferrer, key, loader);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The key for a canonical request: the app UID, the requested definitions and their UIDs in order, and the mode,
+     * locker and compat flags that change how they are written, as in the app.js key of the server service. Labels are
+     * not cached, so the locale is not part of it.
+     */
+    private String getResponseCacheKey(AuraContext context, String appUID, Map<DefDescriptor<?>, String> descriptors) {
+        StringBuilder key = new StringBuilder(1024);
+        key.append(appUID);
+        key.append('|').append(context.getMode());
+        key.append('|').append(configAdapter.isLockerServiceEnabled());
+        key.append('|').append(context.useCompatSource());
+        for (Entry<DefDescriptor<?>, String> entry : descriptors.entrySet()) {
+            key.append('|').append(entry.getKey().getQualifiedName()).append('=').append(entry.getValue());
+        }
+        return ComponentDefinitionResponseCache.getKey(key);
     }
 
     protected void updateContext(HttpServletRequest request) {
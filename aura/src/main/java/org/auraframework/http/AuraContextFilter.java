@@ -16,8 +16,10 @@
 package org.auraframework.http;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -65,6 +67,9 @@ import org.auraframework.util.json.JsonReader;
 import org.springframework.web.context.support.SpringBeanAutowiringSupport;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 
 @SuppressWarnings("deprecation")
@@ -85,6 +90,21 @@ public class AuraContextFilter implements Filter {
     protected static final StringParam pageURI = new StringParam(AuraServlet.AURA_PREFIX + "pageURI", 0, false);
     protected static final BooleanParam compatParam = new BooleanParam(AuraServlet.AURA_PREFIX + "compat", false);
 
+    /** Default size of the parsed context cache, in characters of raw context */
+    private static final long DEFAULT_PARSED_CONTEXT_CACHE_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * Parsed aura.context values, keyed by the raw value.
+     *
+     * A client sends the same context on every request, so this saves parsing the JSON and building the loaded
+     * descriptors each time. The key is the raw string rather than a hash of it, so that two contexts can never
+     * share an entry.
+     */
+    private final Cache<String, ParsedContext> parsedContexts = CacheBuilder.newBuilder()
+            .maximumWeight(getParsedContextCacheSize())
+            .weigher((String key, ParsedContext value) -> key.length())
+            .build();
+
     private AuraTestFilter testFilter;
 
     private AuraDeprecated auraDeprecated; // force initialization of Aura
@@ -245,7 +265,8 @@ public class AuraContextFilter implements Filter {
         Format f = getFormat(request);
         Authentication a = access.get(request, Authentication.AUTHENTICATED);
 
-        Map<String, Object> configMap = getConfigMap(request);
+        ParsedContext parsed = getParsedContext(request);
+        Map<String, Object> configMap = parsed != null ? parsed.configMap : null;
         Mode m = getMode(request, configMap);
 
         DefDescriptor<? extends BaseComponentDef> appDesc = getAppParam(request, configMap);
@@ -267,14 +288,13 @@ public class AuraContextFilter implements Filter {
         context.setUseCompatSource(context.forceCompat() || useCompatSource(request, configMap, m));
 
         context.setActionPublicCacheKey(getActionPublicCacheKey(configMap));
-        if (configMap != null) {
-            getLoaded(context, configMap.get("loaded"));
-            @SuppressWarnings("unchecked")
-            List<Object> dns = (List<Object>) configMap.get("dn");
-            if (dns != null) {
-                for (Object dn : dns) {
-                    context.addDynamicNamespace((String) dn);
-                }
+        if (parsed != null) {
+            Map<DefDescriptor<?>, String> clientLoaded = parsed.getClientLoaded(this);
+            if (clientLoaded != null) {
+                context.setClientLoaded(clientLoaded);
+            }
+            for (String dn : parsed.dynamicNamespaces) {
+                context.addDynamicNamespace(dn);
             }
             context.setFrameworkUID((String) configMap.get("fwuid"));
 
@@ -329,14 +349,16 @@ public class AuraContextFilter implements Filter {
     }
 
     /**
-     * Pull in the map of loaded defDescriptors and uids from the context.
+     * Build the map of loaded defDescriptors and uids from the context.
+     *
+     * @return the loaded map, or null if the input was bogus.
      */
-    private void getLoaded(AuraContext context, Object loadedEntry) {
+    private Map<DefDescriptor<?>, String> getLoaded(Object loadedEntry) {
         if (loadedEntry == null || !(loadedEntry instanceof Map)) {
             //
             // If someone gives us bogus input, just ignore it.
             //
-            return;
+            return null;
         }
         @SuppressWarnings("unchecked")
         Map<String, String> loaded = (Map<String, String>) loadedEntry;
@@ -365,26 +387,119 @@ public class AuraContextFilter implements Filter {
                 }
             }
         }
-        context.setClientLoaded(clientLoaded);
+        return Collections.unmodifiableMap(clientLoaded);
     }
 
-    @SuppressWarnings("unchecked")
     private Map<String, Object> getConfigMap(HttpServletRequest request) {
-        Map<String, Object> configMap = null;
-        String config = contextConfig.get(request);
-        if (!StringUtils.isBlank(config)) {
-            if (config.startsWith(AuraTextUtil.urlencode("{"))) {
-                // Decode encoded context json. Serialized AuraContext json always starts with "{"
-                config = AuraTextUtil.urldecode(config);
+        ParsedContext parsed = getParsedContext(request);
+        return parsed != null ? parsed.configMap : null;
+    }
+
+    /**
+     * Get the parsed aura.context for a request, from the cache if the same context has been seen before.
+     *
+     * @return the parsed context, or null if there is none or it is invalid.
+     */
+    private ParsedContext getParsedContext(HttpServletRequest request) {
+        String raw = contextConfig.get(request);
+        if (StringUtils.isBlank(raw)) {
+            return null;
+        }
+        ParsedContext parsed = parsedContexts.getIfPresent(raw);
+        if (parsed != null) {
+            return parsed;
+        }
+        String config = raw;
+        if (config.startsWith(AuraTextUtil.urlencode("{"))) {
+            // Decode encoded context json. Serialized AuraContext json always starts with "{"
+            config = AuraTextUtil.urldecode(config);
+        }
+        Object configMap;
+        try {
+            configMap = new JsonReader().read(config);
+        } catch (Throwable throwable) {
+            //config map was invalid. log the bad json and move on. Callers are protected against null.
+            loggingService.warn("aura.config was invalid JSON:" + config, throwable);
+            return null;
+        }
+        if (!(configMap instanceof Map)) {
+            loggingService.warn("aura.config was invalid JSON:" + config);
+            return null;
+        }
+        parsed = new ParsedContext(configMap);
+        parsedContexts.put(raw, parsed);
+        return parsed;
+    }
+
+    /**
+     * An immutable, pre-parsed aura.context.
+     *
+     * The config map is frozen so that it can be shared between requests. The loaded descriptors are built on
+     * first use, as they need the definition service.
+     */
+    private static final class ParsedContext {
+        private final Map<String, Object> configMap;
+        private final List<String> dynamicNamespaces;
+        private volatile Map<DefDescriptor<?>, String> clientLoaded;
+        private volatile boolean loadedBuilt;
+
+        @SuppressWarnings("unchecked")
+        private ParsedContext(Object configMap) {
+            this.configMap = (Map<String, Object>) freeze(configMap);
+            ImmutableList.Builder<String> dns = ImmutableList.builder();
+            Object dnEntry = this.configMap.get("dn");
+            if (dnEntry instanceof List) {
+                for (Object dn : (List<Object>) dnEntry) {
+                    if (dn != null) {
+                        dns.add((String) dn);
+                    }
+                }
             }
+            this.dynamicNamespaces = dns.build();
+        }
+
+        private Map<DefDescriptor<?>, String> getClientLoaded(AuraContextFilter filter) {
+            if (!loadedBuilt) {
+                clientLoaded = filter.getLoaded(configMap.get("loaded"));
+                loadedBuilt = true;
+            }
+            return clientLoaded;
+        }
+
+        /**
+         * Make an unmodifiable deep copy of parsed JSON.
+         */
+        private static Object freeze(Object value) {
+            if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    copy.put(entry.getKey(), freeze(entry.getValue()));
+                }
+                return Collections.unmodifiableMap(copy);
+            }
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                List<Object> copy = new ArrayList<>(list.size());
+                for (Object item : list) {
+                    copy.add(freeze(item));
+                }
+                return Collections.unmodifiableList(copy);
+            }
+            return value;
+        }
+    }
+
+    private static long getParsedContextCacheSize() {
+        String prop = System.getProperty("aura.context.parsedCacheSize");
+        if (prop != null && !prop.isEmpty()) {
             try {
-                configMap = (Map<String, Object>) new JsonReader().read(config);
-            } catch (Throwable throwable) {
-                //config map was invalid. log the bad json and move on. Callers are protected against null.
-                loggingService.warn("aura.config was invalid JSON:" + config, throwable);
+                return Long.parseLong(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
             }
         }
-        return configMap;
+        return DEFAULT_PARSED_CONTEXT_CACHE_SIZE;
     }
 
     /**
@@ -17,6 +17,7 @@ package org.auraframework.http;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,10 +31,13 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.http.HttpHeaders;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.http.resource.FileStaticResource;
+import org.auraframework.http.resource.StaticResourceTable;
 import org.auraframework.system.StaticResource;
 import org.auraframework.util.IOUtil;
 import org.auraframework.util.resource.ResourceLoader;
 
+import com.google.common.io.ByteStreams;
+
 public class AuraFrameworkServlet extends AuraBaseServlet {
 
     private static final long serialVersionUID = 6034969764380397480L;
@@ -49,6 +53,8 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
     private ConfigAdapter configAdapter;
 
     private MimetypesFileTypeMap mimeTypesMap = new MimetypesFileTypeMap();
+
+    private final StaticResourceTable resourceTable = new StaticResourceTable();
     
     @SuppressWarnings("boxing")
     @Override
@@ -139,6 +145,26 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
         boolean isProduction = configAdapter.isProduction();
         StaticResource staticResource = new FileStaticResource(file, format, nonceUid, isProduction, resourceLoader);
 
+        //
+        // With a matching nonce the resource can't change until the framework uid does, so it is served
+        // from memory.
+        //
+        if (matchedUid) {
+            String key = String.format(format, file) + (isProduction ? "|prod" : "");
+            StaticResourceTable.Entry entry = resourceTable.get(currentUid, key);
+            if (entry == null) {
+                try (final InputStream in = staticResource.getResourceStream()) {
+                    if (in == null) {
+                        response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                        return;
+                    }
+                    entry = resourceTable.put(currentUid, key, getMimeType(path), ByteStreams.toByteArray(in));
+                }
+            }
+            writeEntry(request, response, entry);
+            return;
+        }
+
         //
         // Check whether path has wrong nonce or the path contains no nonce
         //
@@ -167,16 +193,8 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
                 return;
             }
 
-            // handle any MIME content type, using only file name (not contents)
-            String mimeType = mimeTypesMap.getContentType(path);
-
-            if (mimeType.equals("application/octet-stream") || mimeType.equals(JAVASCRIPT_CONTENT_TYPE)) /* unidentified */{
-                mimeType = JAVASCRIPT_CONTENT_TYPE;
-            }
-            response.setContentType(mimeType);
-            if (mimeType.startsWith("text/")) {
-                response.setCharacterEncoding(AuraBaseServlet.UTF_ENCODING);
-            }
+            String mimeType = getMimeType(path);
+            setContentType(response, mimeType);
 
             response.setBufferSize(10240);// 10kb
 
@@ -207,6 +225,92 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
         }
     }
 
+    /**
+     * Write a resource from the table, with a single write of its content.
+     */
+    private void writeEntry(HttpServletRequest request, HttpServletResponse response, StaticResourceTable.Entry entry)
+            throws IOException {
+        byte[] content = entry.getContent();
+        String etag = entry.getETag();
+        byte[] gzipped = entry.getGzipped();
+        boolean useGzip = false;
+        if (gzipped != null) {
+            // caches must keep the variants apart, whichever one this request gets.
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            useGzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        }
+        if (useGzip) {
+            content = gzipped;
+            etag = entry.getGzippedETag();
+        }
+        if (servletUtilAdapter.checkNotModified(request, response, etag)) {
+            return;
+        }
+        setContentType(response, entry.getContentType());
+        servletUtilAdapter.setLongCache(response);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (useGzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+
+    /**
+     * Check whether an Accept-Encoding header allows gzip, either by name or through '*', with a quality above zero.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException nfe) {
+                        // a broken quality is not an acceptance.
+                        quality = 0.0;
+                    }
+                }
+            }
+            if ("gzip".equals(name) || "x-gzip".equals(name)) {
+                gzip = quality;
+            } else if ("*".equals(name)) {
+                any = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0.0;
+        }
+        return any != null && any > 0.0;
+    }
+
+    /**
+     * handle any MIME content type, using only file name (not contents)
+     */
+    private String getMimeType(String path) {
+        String mimeType = mimeTypesMap.getContentType(path);
+
+        if (mimeType.equals("application/octet-stream") || mimeType.equals(JAVASCRIPT_CONTENT_TYPE)) /* unidentified */{
+            mimeType = JAVASCRIPT_CONTENT_TYPE;
+        }
+        return mimeType;
+    }
+
+    private static void setContentType(HttpServletResponse response, String mimeType) {
+        response.setContentType(mimeType);
+        if (mimeType.startsWith("text/")) {
+            response.setCharacterEncoding(AuraBaseServlet.UTF_ENCODING);
+        }
+    }
+
     @Inject
     public void setConfigAdapter(ConfigAdapter configAdapter) {
         this.configAdapter = configAdapter;
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * Cache of the serialized definitions in responses of the component definition servlet.
+ *
+ * The definitions of a canonical request are fully determined by its set of descriptors and their UIDs, the UID of
+ * the application it comes from and the mode they are written in, so the same URL is asked for by every user of an
+ * application. Requests for restricted definitions, and the labels and global values that follow the definitions, are
+ * never cached. The definitions are kept as the strings written to the response, bounded by their total size in bytes
+ * through the <code>aura.cmpDef.responseCacheBytes</code> system property, and a size of zero turns it off.
+ *
+ * Concurrent requests for a key that is not cached yet wait for a single render. Hits and misses are counted per
+ * referring application.
+ */
+public class ComponentDefinitionResponseCache {
+    /** Default total size of the cache, in bytes */
+    private static final long DEFAULT_SIZE = 32L * 1024 * 1024;
+
+    private final Cache<String, Response> responses;
+
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public ComponentDefinitionResponseCache() {
+        this(getCacheSize());
+    }
+
+    public ComponentDefinitionResponseCache(long maxBytes) {
+        this.responses = maxBytes > 0 ? CacheBuilder.newBuilder().maximumWeight(maxBytes)
+                .<String, Response>weigher((key, response) -> 2 * response.getBody().length()).build() : null;
+    }
+
+    public boolean isEnabled() {
+        return responses != null;
+    }
+
+    /**
+     * Hash the parts of a key into a cache key.
+     */
+    public static String getKey(CharSequence parts) {
+        return Hashing.sha256().hashString(parts, Charsets.UTF_8).toString();
+    }
+
+    /**
+     * Get a response, rendering it if it is not cached. Only one render runs at a time for any key.
+     *
+     * @param appReferrer the referring application, for the stats.
+     * @param key the key from {@link #getKey}.
+     * @param loader renders the response on a miss.
+     * @return the response.
+     * @throws ExecutionException wrapping any exception thrown by the loader, failures are not cached.
+     */
+    public Response get(String appReferrer, String key, Callable<Response> loader) throws ExecutionException {
+        AtomicBoolean loaded = new AtomicBoolean();
+        Response response = responses.get(key, () -> {
+            loaded.set(true);
+            return loader.call();
+        });
+        Stats appStats = getStats(appReferrer);
+        if (loaded.get()) {
+            appStats.misses.increment();
+        } else {
+            appStats.hits.increment();
+        }
+        return response;
+    }
+
+    /**
+     * @return the number of hits and misses for each referring application.
+     */
+    public Map<String, Stats> getStats() {
+        return stats;
+    }
+
+    private Stats getStats(String appReferrer) {
+        String app = appReferrer != null ? appReferrer : "";
+        Stats appStats = stats.get(app);
+        if (appStats == null) {
+            appStats = stats.computeIfAbsent(app, k -> new Stats());
+        }
+        return appStats;
+    }
+
+    public void invalidateAll() {
+        if (responses != null) {
+            responses.invalidateAll();
+        }
+    }
+
+    private static long getCacheSize() {
+        String prop = System.getProperty("aura.cmpDef.responseCacheBytes");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Long.parseLong(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return DEFAULT_SIZE;
+    }
+
+    /**
+     * The serialized definitions of a response.
+     */
+    public static final class Response {
+        private final String body;
+
+        public Response(String body) {
+            this.body = body;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * Hit and miss counts for a referring application.
+     */
+    public static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+    }
+}
@@ -18,7 +18,10 @@ package org.auraframework.http.resource;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URL;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+
 import javax.inject.Inject;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
@@ -53,6 +56,8 @@ public class InlineJs extends AuraResourceImpl {
 
     private String downgradeJs = null;
 
+    private final InlineJsTemplateCache templateCache = new InlineJsTemplateCache();
+
     public InlineJs() {
         super("inline.js", Format.JS);
     }
@@ -100,14 +105,41 @@ public class InlineJs extends AuraResourceImpl {
         PrintWriter out = response.getWriter();
         out.write("\n    ");
 
-        Component template = serverService.writeTemplate(context, def, getComponentAttributes(request), out);
+        Map<String, Object> attributes = serverService.getTemplateAttributes(context, def,
+                getComponentAttributes(request));
+        String key = templateCache.getKey(context, definitionService, def, attributes);
+        InlineJsTemplateCache.Template cached = key != null ? templateCache.get(key) : null;
+        Component template = null;
+        if (cached == null) {
+            template = instanceService.getInstance(def.getTemplateDef().getDescriptor(), attributes);
+        }
 
         writeModuleCompatDowngradeJs(context, out);
         for(InlineJSAppender appender : MoreObjects.firstNonNull(inlineJsAppenders, ImmutableList.<InlineJSAppender>of())){
             appender.append(def, context, out);
         }
 
-        renderingService.render(template, null, out);
+        if (cached != null) {
+            cached.write(out, attributes);
+        } else if (key == null || templateCache.isUncacheable(key)) {
+            renderingService.render(template, null, out);
+        } else {
+            StringBuilder rendered = new StringBuilder();
+            renderingService.render(template, null, rendered);
+            out.append(rendered);
+
+            // render again with markers in the holes, to find the static segments.
+            try {
+                Map<String, Object> marked = templateCache.getMarkedAttributes(attributes);
+                StringBuilder markedRender = new StringBuilder();
+                renderingService.render(instanceService.getInstance(def.getTemplateDef().getDescriptor(), marked),
+                        null, markedRender);
+                templateCache.put(key, rendered.toString(), markedRender.toString(), attributes,
+                        Arrays.asList(context.getScriptNonce(), configAdapter.getCSRFToken()));
+            } catch (Exception e) {
+                templateCache.setUncacheable(key);
+            }
+        }
     }
 
     /**
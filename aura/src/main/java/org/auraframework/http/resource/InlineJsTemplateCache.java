@@ -0,0 +1,403 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.CheckForNull;
+
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
+
+/**
+ * Cache of rendered inline.js templates, stored as static segments around holes for the per request values.
+ *
+ * The template of an application renders the same for a given application UID, mode, locale and client, except for
+ * the serialized context and token ("auraInit"), the inline bootstrap ("appBootstrap") and the style context. Those
+ * attributes are the holes, everything else the template is created with is part of the key. A hit writes the
+ * segments with the hole values spliced in, without creating or rendering the template.
+ *
+ * Only templates whose whole tree renders from its attributes are cached: no component in the template, its super
+ * templates or its body may have a model, a provider or a server renderer other than the framework's own, or use
+ * an expression outside of attributes and the locale. Anything else may read the user or the request, and would give
+ * the next user the first one's output.
+ *
+ * A template is only stored after checking that rendering it with marker values for the holes, and splicing the
+ * real values into that, gives exactly what the real render gave, and that no per request value such as the script
+ * nonce or the CSRF token ended up in a static segment. Templates that fail the check are remembered as uncacheable.
+ */
+public class InlineJsTemplateCache {
+    /** Default size of the cache, in number of templates */
+    private static final int DEFAULT_SIZE = 256;
+
+    /** Attributes that are filled in per request */
+    static final List<String> HOLES = ImmutableList.of("auraInit", "appBootstrap", "styleContext");
+
+    /** Roots of expressions a cacheable template may use, anything else may differ per request */
+    private static final ImmutableSet<String> CACHEABLE_ROOTS = ImmutableSet.of("v", "$locale");
+
+    /** Server renderers that only write what the component was created with */
+    private static final ImmutableSet<String> CACHEABLE_RENDERERS = ImmutableSet.of(
+            "java://org.auraframework.renderer.ComponentRenderer",
+            "java://org.auraframework.renderer.ExpressionRenderer",
+            "java://org.auraframework.renderer.HtmlRenderer",
+            "java://org.auraframework.renderer.TextRenderer");
+
+    private static final Template UNCACHEABLE = new Template(ImmutableList.<String>of(), ImmutableList.<String>of());
+
+    private final Cache<String, Template> templates;
+
+    /** Whether the tree of a template can be cached, by UID and template */
+    private final Cache<String, Boolean> trees;
+
+    public InlineJsTemplateCache() {
+        this(getCacheSize());
+    }
+
+    public InlineJsTemplateCache(int size) {
+        this.templates = size > 0 ? CacheBuilder.newBuilder().maximumSize(size).build() : null;
+        this.trees = size > 0 ? CacheBuilder.newBuilder().maximumSize(size).build() : null;
+    }
+
+    /**
+     * Get the cache key for rendering a template.
+     *
+     * @param context the current context.
+     * @param definitionService the service to compute the UID and read the template tree with.
+     * @param def the application or component being loaded.
+     * @param attributes the attributes the template is created with.
+     * @return the key, or null if the template can't be cached.
+     */
+    @CheckForNull
+    public String getKey(AuraContext context, DefinitionService definitionService, BaseComponentDef def,
+            Map<String, Object> attributes) {
+        if (templates == null || attributes == null) {
+            return null;
+        }
+        DefDescriptor<? extends BaseComponentDef> descriptor = def.getDescriptor();
+        String uid;
+        ComponentDef templateDef;
+        try {
+            // the UID the client sent may be anything, only the one computed here identifies the definitions.
+            uid = definitionService.getUid(null, descriptor);
+            templateDef = def.getTemplateDef();
+        } catch (Exception e) {
+            return null;
+        }
+        if (uid == null || templateDef == null || !isCacheableTree(definitionService, uid, templateDef)) {
+            return null;
+        }
+
+        StringBuilder key = new StringBuilder(1024);
+        key.append(descriptor.getQualifiedName()).append('|').append(uid);
+        key.append('|').append(templateDef.getDescriptor().getQualifiedName());
+        key.append('|').append(context.getMode());
+        key.append('|').append(context.getClient() != null ? context.getClient().getType() : null);
+        key.append('|').append(context.forceCompat());
+        List<Locale> locales = context.getRequestedLocales();
+        if (locales != null) {
+            for (Locale locale : locales) {
+                key.append(',').append(locale);
+            }
+        }
+        for (Map.Entry<String, Object> entry : new TreeMap<>(attributes).entrySet()) {
+            Object value = entry.getValue();
+            if (HOLES.contains(entry.getKey())) {
+                if (!(value instanceof String)) {
+                    return null;
+                }
+                key.append("|?").append(entry.getKey());
+            } else if (value == null || value instanceof String || value instanceof Boolean) {
+                key.append('|').append(entry.getKey()).append('=').append(value);
+            } else {
+                // components and other values have no stable text form.
+                return null;
+            }
+        }
+        return Hashing.sha256().hashString(key, Charsets.UTF_8).toString();
+    }
+
+    private boolean isCacheableTree(DefinitionService definitionService, String uid, ComponentDef templateDef) {
+        String treeKey = uid + '|' + templateDef.getDescriptor().getQualifiedName();
+        Boolean cacheable = trees.getIfPresent(treeKey);
+        if (cacheable == null) {
+            try {
+                cacheable = checkTree(definitionService, templateDef);
+            } catch (Exception e) {
+                cacheable = false;
+            }
+            trees.put(treeKey, cacheable);
+        }
+        return cacheable;
+    }
+
+    /**
+     * Walk the template, its supers and every component it contains, looking for anything that may render
+     * differently for another user or request.
+     */
+    private static boolean checkTree(DefinitionService definitionService, BaseComponentDef templateDef)
+            throws QuickFixException {
+        Set<DefDescriptor<?>> seen = new HashSet<>();
+        Deque<BaseComponentDef> pending = new ArrayDeque<>();
+        seen.add(templateDef.getDescriptor());
+        pending.add(templateDef);
+        while (!pending.isEmpty()) {
+            BaseComponentDef def = pending.remove();
+            if (!hasCacheableReferences(def) || !def.getModelDefDescriptors().isEmpty()
+                    || def.getProviderDescriptor() != null) {
+                return false;
+            }
+            Set<DefDescriptor<?>> dependencies = def.getDependencySet();
+            if (dependencies == null) {
+                continue;
+            }
+            for (DefDescriptor<?> dependency : dependencies) {
+                switch (dependency.getDefType()) {
+                case MODEL:
+                case PROVIDER:
+                    return false;
+                case RENDERER:
+                    if ("java".equals(dependency.getPrefix())
+                            && !CACHEABLE_RENDERERS.contains(dependency.getQualifiedName())) {
+                        return false;
+                    }
+                    break;
+                case COMPONENT:
+                    if (seen.add(dependency)) {
+                        pending.add((BaseComponentDef) definitionService.getDefinition(dependency));
+                    }
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasCacheableReferences(BaseComponentDef def) {
+        Collection<PropertyReference> references = def.getPropertyReferences();
+        if (references != null) {
+            for (PropertyReference reference : references) {
+                String root = reference.getRoot();
+                if (root == null || !CACHEABLE_ROOTS.contains(root.toLowerCase())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the template for the key, or null if it has not been stored or can't be cached.
+     */
+    @CheckForNull
+    public Template get(String key) {
+        Template template = templates.getIfPresent(key);
+        return template != UNCACHEABLE ? template : null;
+    }
+
+    /**
+     * @return true if the key has been found not to be cacheable, so there is no point in checking it again.
+     */
+    public boolean isUncacheable(String key) {
+        return templates.getIfPresent(key) == UNCACHEABLE;
+    }
+
+    /**
+     * Get attributes with marker values in place of the holes.
+     *
+     * @param attributes the attributes the template was rendered with.
+     * @return a copy of the attributes with the holes replaced.
+     */
+    public Map<String, Object> getMarkedAttributes(Map<String, Object> attributes) {
+        Map<String, Object> marked = Maps.newHashMap(attributes);
+        for (String hole : HOLES) {
+            if (marked.containsKey(hole)) {
+                marked.put(hole, getMarker(hole));
+            }
+        }
+        return marked;
+    }
+
+    /**
+     * The marker includes characters that any escaping would change, so an escaped hole is never found.
+     */
+    static String getMarker(String hole) {
+        return "\u0001aura:hole:" + hole + ":</script><&\"'\\\u0001";
+    }
+
+    /**
+     * Store a template, if the render with markers reproduces the real render.
+     *
+     * @param key the key from {@link #getKey}.
+     * @param rendered the output of rendering with the real attributes.
+     * @param markedRender the output of rendering with {@link #getMarkedAttributes}.
+     * @param attributes the real attributes.
+     * @param requestValues values that belong to this request, which must not be in the static segments.
+     * @return the template, or null if it could not be cached.
+     */
+    @CheckForNull
+    public Template put(String key, String rendered, String markedRender, Map<String, Object> attributes,
+            Collection<String> requestValues) {
+        Template template = Template.parse(markedRender);
+        if (template == null || !rendered.equals(template.fill(attributes)) || template.contains(requestValues)) {
+            setUncacheable(key);
+            return null;
+        }
+        templates.put(key, template);
+        return template;
+    }
+
+    /**
+     * Remember that a key can't be cached.
+     */
+    public void setUncacheable(String key) {
+        templates.put(key, UNCACHEABLE);
+    }
+
+    public void invalidateAll() {
+        if (templates != null) {
+            templates.invalidateAll();
+            trees.invalidateAll();
+        }
+    }
+
+    private static int getCacheSize() {
+        String prop = System.getProperty("aura.inlineJs.templateCacheSize");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return DEFAULT_SIZE;
+    }
+
+    /**
+     * A rendered template: static segments, with a hole between each pair.
+     */
+    public static final class Template {
+        private final List<String> segments;
+        private final List<String> holes;
+
+        private Template(List<String> segments, List<String> holes) {
+            this.segments = segments;
+            this.holes = holes;
+        }
+
+        /**
+         * Split a render with marked holes into segments.
+         *
+         * @return the template, or null if a marker was not written as is.
+         */
+        @CheckForNull
+        static Template parse(String markedRender) {
+            List<String> segments = new ArrayList<>();
+            List<String> holes = new ArrayList<>();
+            int start = 0;
+            while (true) {
+                int next = -1;
+                String nextHole = null;
+                for (String hole : HOLES) {
+                    int index = markedRender.indexOf(getMarker(hole), start);
+                    if (index >= 0 && (next < 0 || index < next)) {
+                        next = index;
+                        nextHole = hole;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                segments.add(markedRender.substring(start, next));
+                holes.add(nextHole);
+                start = next + getMarker(nextHole).length();
+            }
+            segments.add(markedRender.substring(start));
+            for (String segment : segments) {
+                if (segment.indexOf('\u0001') >= 0) {
+                    // part of a marker, changed by the render.
+                    return null;
+                }
+            }
+            return new Template(ImmutableList.copyOf(segments), ImmutableList.copyOf(holes));
+        }
+
+        /**
+         * Write the template with the hole values from the attributes.
+         */
+        public void write(Appendable out, Map<String, Object> attributes) throws IOException {
+            out.append(segments.get(0));
+            for (int i = 0; i < holes.size(); i++) {
+                Object value = attributes.get(holes.get(i));
+                out.append(value != null ? value.toString() : "");
+                out.append(segments.get(i + 1));
+            }
+        }
+
+        /**
+         * @return true if any of the values is in a static segment.
+         */
+        boolean contains(Collection<String> values) {
+            for (String value : values) {
+                if (value == null || value.isEmpty()) {
+                    continue;
+                }
+                for (String segment : segments) {
+                    if (segment.contains(value)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        String fill(Map<String, Object> attributes) {
+            StringBuilder sb = new StringBuilder();
+            try {
+                write(sb, attributes);
+            } catch (IOException e) {
+                // can't happen with a StringBuilder.
+                throw new IllegalStateException(e);
+            }
+            return sb.toString();
+        }
+    }
+}
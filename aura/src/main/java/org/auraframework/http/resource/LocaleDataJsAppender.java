@@ -24,6 +24,8 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -44,6 +46,12 @@ import com.google.common.collect.Maps;
 public class LocaleDataJsAppender implements InlineJSAppender{
 
     private Map<String, String> localeData;
+
+    /**
+     * The wrapped script for each resolved (language, user, lightning) moment locale triple, empty if there is
+     * nothing to load. There are few distinct triples, so they are all kept.
+     */
+    private final ConcurrentMap<String, String> localeDataJs = new ConcurrentHashMap<>();
     private LocalizationAdapter localizationAdapter;
     private ExceptionAdapter exceptionAdapter;
 
@@ -60,6 +68,7 @@ public class LocaleDataJsAppender implements InlineJSAppender{
     @PostConstruct
     public void initialize() {
         localeData = readLocaleData();
+        localeDataJs.clear();
     }
 
     @Override
@@ -76,6 +85,18 @@ public class LocaleDataJsAppender implements InlineJSAppender{
         String userMomentLocale = this.getMomentLocale(userLocale.toString());
         String ltngMomentLocale = this.getMomentLocale(langLocale.getLanguage() + '_' + userLocale.getCountry());
 
+        String key = langMomentLocale + '|' + userMomentLocale + '|' + ltngMomentLocale;
+        String loadLocaleDataJs = localeDataJs.get(key);
+        if (loadLocaleDataJs == null) {
+            loadLocaleDataJs = localeDataJs.computeIfAbsent(key,
+                    k -> buildLocaleDataJs(langMomentLocale, userMomentLocale, ltngMomentLocale));
+        }
+        if (!loadLocaleDataJs.isEmpty()) {
+            out.append(loadLocaleDataJs);
+        }
+    }
+
+    private String buildLocaleDataJs(String langMomentLocale, String userMomentLocale, String ltngMomentLocale) {
         StringBuilder defineLocaleJs = new StringBuilder();
         // "en" data has been included in moment lib, no need to load locale data
         if (!"en".equals(langMomentLocale)) {
@@ -94,15 +115,14 @@ public class LocaleDataJsAppender implements InlineJSAppender{
             defineLocaleJs.append(content);
         }
 
-        if (defineLocaleJs.length() > 0) {
-            String loadLocaleDataJs = String.format(
-                    "\n(function(){\n" +
-                    "    function loadLocaleData(moment){\n%s}\n" +
-                    "    (window.Aura && window.Aura.moment)? loadLocaleData(window.Aura.moment) : (window.Aura || (window.Aura = {}), window.Aura.loadLocaleData=loadLocaleData);\n" +
-                    "})();\n", defineLocaleJs.toString());
-
-            out.append(loadLocaleDataJs);
+        if (defineLocaleJs.length() == 0) {
+            return "";
         }
+        return String.format(
+                "\n(function(){\n" +
+                "    function loadLocaleData(moment){\n%s}\n" +
+                "    (window.Aura && window.Aura.moment)? loadLocaleData(window.Aura.moment) : (window.Aura || (window.Aura = {}), window.Aura.loadLocaleData=loadLocaleData);\n" +
+                "})();\n", defineLocaleJs.toString());
     }
 
     private Map<String, String> readLocaleData() {
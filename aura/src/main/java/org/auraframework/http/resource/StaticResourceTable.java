@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.CheckForNull;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+/**
+ * In memory table of framework resources, for serving them without going back to the resource loader.
+ *
+ * Resources requested with the current framework UID are immutable until that UID changes, so the content is read
+ * once, along with its content type and entity tag, and the whole table is dropped when a new UID is seen. The table
+ * is bounded by the total size of the content, set by the <code>aura.framework.resourceTableBytes</code> system
+ * property, and a size of zero turns it off.
+ *
+ * Text resources can also be kept gzipped, for clients that accept it. That is off by default, as most deployments
+ * compress in front of the servlet, and is turned on by the <code>aura.framework.gzipResources</code> system property.
+ */
+public class StaticResourceTable {
+    /** Default total size of the table, in bytes */
+    private static final long DEFAULT_SIZE = 64L * 1024 * 1024;
+
+    /** Resources smaller than this are not worth compressing */
+    private static final int MIN_GZIP_SIZE = 1024;
+
+    private final Cache<String, Entry> entries;
+    private final boolean gzip;
+    private volatile String frameworkUid;
+
+    public StaticResourceTable() {
+        this(getTableSize(), Boolean.getBoolean("aura.framework.gzipResources"));
+    }
+
+    public StaticResourceTable(long maxBytes, boolean gzip) {
+        this.entries = maxBytes > 0 ? CacheBuilder.newBuilder().maximumWeight(maxBytes)
+                .<String, Entry>weigher((key, entry) -> entry.getWeight()).build() : null;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Get a resource for the given framework UID.
+     *
+     * @param frameworkUid the current framework UID, a change drops everything in the table.
+     * @param key the key for the resource.
+     * @return the resource, or null if it is not in the table.
+     */
+    @CheckForNull
+    public Entry get(String frameworkUid, String key) {
+        if (entries == null || frameworkUid == null) {
+            return null;
+        }
+        if (!frameworkUid.equals(this.frameworkUid)) {
+            synchronized (this) {
+                if (!frameworkUid.equals(this.frameworkUid)) {
+                    entries.invalidateAll();
+                    this.frameworkUid = frameworkUid;
+                }
+            }
+            return null;
+        }
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * Create a resource, and store it if the framework UID is still current.
+     *
+     * @param frameworkUid the framework UID the content was read for.
+     * @param key the key for the resource.
+     * @param contentType the content type to send.
+     * @param content the content.
+     * @return the resource, stored or not.
+     */
+    public Entry put(String frameworkUid, String key, String contentType, byte[] content) throws IOException {
+        byte[] gzipped = null;
+        if (gzip && contentType.startsWith("text/") && content.length >= MIN_GZIP_SIZE) {
+            gzipped = compress(content);
+            if (gzipped.length >= content.length) {
+                gzipped = null;
+            }
+        }
+        String etag = "\"" + Hashing.sha256().hashBytes(content).toString() + "\"";
+        Entry entry = new Entry(contentType, content, gzipped, etag);
+        if (entries != null && Objects.equals(frameworkUid, this.frameworkUid)) {
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    public void invalidateAll() {
+        if (entries != null) {
+            entries.invalidateAll();
+        }
+    }
+
+    private static byte[] compress(byte[] content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long getTableSize() {
+        String prop = System.getProperty("aura.framework.resourceTableBytes");
+        if (prop != null && !prop.isEmpty()) {
+            try {
+                return Long.parseLong(prop);
+            } catch (NumberFormatException e) {
+                // ne'ermind, use the default
+            }
+        }
+        return DEFAULT_SIZE;
+    }
+
+    /**
+     * A resource ready to be written.
+     */
+    public static final class Entry {
+        private final String contentType;
+        private final byte[] content;
+        private final byte[] gzipped;
+        private final String etag;
+
+        private Entry(String contentType, byte[] content, byte[] gzipped, String etag) {
+            this.contentType = contentType;
+            this.content = content;
+            this.gzipped = gzipped;
+            this.etag = etag;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getContent() {
+            return content;
+        }
+
+        /**
+         * @return the gzipped content, or null if the resource is not kept gzipped.
+         */
+        @CheckForNull
+        public byte[] getGzipped() {
+            return gzipped;
+        }
+
+        /**
+         * @return the quoted, strong entity tag of the content.
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * @return the quoted, strong entity tag of the gzipped content.
+         */
+        public String getGzippedETag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        private int getWeight() {
+            return content.length + (gzipped != null ? gzipped.length : 0);
+        }
+    }
+}
@@ -76,6 +76,21 @@ public interface ServerService {
 
     <T extends BaseComponentDef> Component writeTemplate(AuraContext context, T value, Map<String, Object> componentAttributes, Appendable out) throws IOException, QuickFixException;
 
+    /**
+     * Get the attributes that {@link #writeTemplate} creates the template of an application or component with.
+     *
+     * These include everything computed per request, such as the serialized context and the CSRF token.
+     *
+     * @param context the current context.
+     * @param value the application or component.
+     * @param componentAttributes attributes passed on the request.
+     * @return the template attributes, by name.
+     * @throws IOException if unable to serialize a value
+     * @throws QuickFixException if the definitions could not be compiled.
+     */
+    <T extends BaseComponentDef> Map<String, Object> getTemplateAttributes(AuraContext context, T value,
+            Map<String, Object> componentAttributes) throws IOException, QuickFixException;
+
     /**
      * write out SVG.
      *
@@ -448,4 +448,38 @@ public class AuraContextFilterTest {
         // Assert
         Mockito.verify(mockWriter, Mockito.atLeastOnce()).append("{\"message\":\"null\"}");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStartContextReusesParsedContext() throws Exception {
+        // Arrange
+        HttpServletRequest mockServletRequest = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(mockServletRequest.getParameter("aura.context")).thenReturn(
+                "{\"loaded\":{\"APPLICATION@markup://test:test\":\"uid\"},\"dn\":[\"dynamic\"]}");
+        Mockito.when(mockServletRequest.getParameter("aura.format")).thenReturn("JSON");
+        Mockito.when(mockServletRequest.getLocales()).thenReturn(Collections.emptyEnumeration());
+
+        AuraContext mockContext = Mockito.mock(AuraContext.class);
+        ConfigAdapter mockConfigAdapter = Mockito.mock(ConfigAdapter.class);
+        Mockito.when(mockConfigAdapter.getAvailableModes()).thenReturn(Collections.emptySet());
+        ContextService mockContextService = Mockito.mock(ContextService.class);
+        Mockito.when(mockContextService.startContext(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any())).thenReturn(mockContext);
+        @SuppressWarnings("unchecked")
+        DefDescriptor<ApplicationDef> loadedDescriptor = mock(DefDescriptor.class);
+        Mockito.doReturn(loadedDescriptor).when(definitionService).getDefDescriptor("markup://test:test", ApplicationDef.class);
+
+        AuraContextFilter auraContextFilter = new AuraContextFilter();
+        auraContextFilter.setContextService(mockContextService);
+        auraContextFilter.setConfigAdapter(mockConfigAdapter);
+        auraContextFilter.setDefinitionService(definitionService);
+        auraContextFilter.setLoggingService(loggingService);
+
+        // Act
+        auraContextFilter.startContext(mockServletRequest, null, null);
+        auraContextFilter.startContext(mockServletRequest, null, null);
+
+        // Assert
+        Mockito.verify(definitionService, Mockito.times(1)).getDefDescriptor("markup://test:test", ApplicationDef.class);
+        Mockito.verify(mockContext, Mockito.times(2)).setClientLoaded(ImmutableMap.of(loadedDescriptor, "uid"));
+        Mockito.verify(mockContext, Mockito.times(2)).addDynamicNamespace("dynamic");
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class AuraFrameworkServletUnitTest {
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(AuraFrameworkServlet.acceptsGzip("gzip, deflate, br"));
+        assertTrue(AuraFrameworkServlet.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(AuraFrameworkServlet.acceptsGzip("*"));
+    }
+
+    @Test
+    public void testRefusedGzip() {
+        assertFalse(AuraFrameworkServlet.acceptsGzip(null));
+        assertFalse(AuraFrameworkServlet.acceptsGzip("identity"));
+        assertFalse(AuraFrameworkServlet.acceptsGzip("gzip;q=0"));
+        assertFalse(AuraFrameworkServlet.acceptsGzip("gzip; q=0.0, deflate"));
+        assertFalse(AuraFrameworkServlet.acceptsGzip("*;q=1, gzip;q=0"));
+        assertFalse(AuraFrameworkServlet.acceptsGzip("*;q=0"));
+    }
+}
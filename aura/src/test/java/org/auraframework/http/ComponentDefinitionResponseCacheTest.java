@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.auraframework.http.ComponentDefinitionResponseCache.Response;
+import org.junit.Test;
+
+public class ComponentDefinitionResponseCacheTest {
+
+    @Test
+    public void testHitsAndMissesPerApp() throws Exception {
+        ComponentDefinitionResponseCache cache = new ComponentDefinitionResponseCache(1024);
+        AtomicInteger renders = new AtomicInteger();
+        Response response = cache.get("markup://my:app", "key", () -> {
+            renders.incrementAndGet();
+            return new Response("$A.componentService.addDef({})");
+        });
+
+        assertSame(response, cache.get("markup://my:app", "key", ComponentDefinitionResponseCacheTest::failToRender));
+        assertSame(response, cache.get("markup://other:app", "key", ComponentDefinitionResponseCacheTest::failToRender));
+        assertEquals(1, renders.get());
+        assertEquals("$A.componentService.addDef({})", response.getBody());
+        assertEquals(1, cache.getStats().get("markup://my:app").getMisses());
+        assertEquals(1, cache.getStats().get("markup://my:app").getHits());
+        assertEquals(0, cache.getStats().get("markup://other:app").getMisses());
+        assertEquals(1, cache.getStats().get("markup://other:app").getHits());
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+        ComponentDefinitionResponseCache cache = new ComponentDefinitionResponseCache(1024);
+        try {
+            cache.get("app", "key", () -> {
+                throw new IllegalStateException("render failed");
+            });
+            fail("Expected the render failure");
+        } catch (ExecutionException | RuntimeException expected) {
+            // expected
+        }
+
+        Response response = cache.get("app", "key", () -> new Response("ok"));
+        assertEquals("ok", response.getBody());
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        assertFalse(new ComponentDefinitionResponseCache(0).isEnabled());
+    }
+
+    private static Response failToRender() {
+        fail("should be cached");
+        return null;
+    }
+}
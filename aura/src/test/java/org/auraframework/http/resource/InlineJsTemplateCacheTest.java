@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.ComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.def.ModelDef;
+import org.auraframework.def.RendererDef;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Mode;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class InlineJsTemplateCacheTest {
+
+    private static final String KEY = "key";
+
+    private static final List<String> NO_REQUEST_VALUES = Collections.emptyList();
+
+    @Test
+    public void testTemplateSplicesHoles() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        Map<String, Object> attributes = getAttributes("{token:'abc'}");
+
+        InlineJsTemplateCache.Template template = cache.put(KEY, render(attributes),
+                render(cache.getMarkedAttributes(attributes)), attributes, NO_REQUEST_VALUES);
+
+        assertNotNull(template);
+        assertEquals(template, cache.get(KEY));
+        Map<String, Object> other = getAttributes("{token:'def'}");
+        StringBuilder out = new StringBuilder();
+        template.write(out, other);
+        assertEquals(render(other), out.toString());
+    }
+
+    @Test
+    public void testEscapedHoleIsUncacheable() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        Map<String, Object> attributes = getAttributes("{token:'abc'}");
+        Map<String, Object> marked = cache.getMarkedAttributes(attributes);
+        String escaped = render(marked).replace("<", "&lt;");
+
+        assertNull(cache.put(KEY, render(attributes), escaped, attributes, NO_REQUEST_VALUES));
+        assertNull(cache.get(KEY));
+        assertTrue(cache.isUncacheable(KEY));
+    }
+
+    @Test
+    public void testRenderThatDiffersFromMarkedRenderIsUncacheable() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        Map<String, Object> attributes = getAttributes("{token:'abc'}");
+
+        // e.g. a renderer writing a nonce of its own
+        assertNull(cache.put(KEY, render(attributes) + "nonce1", render(cache.getMarkedAttributes(attributes))
+                + "nonce2", attributes, NO_REQUEST_VALUES));
+        assertTrue(cache.isUncacheable(KEY));
+    }
+
+    @Test
+    public void testKeyIgnoresHoleValues() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        AuraContext context = getContext();
+        DefinitionService definitionService = getDefinitionService();
+        ApplicationDef def = getDef("v");
+
+        String key = cache.getKey(context, definitionService, def, getAttributes("{token:'abc'}"));
+        assertNotNull(key);
+        assertEquals(key, cache.getKey(context, definitionService, def, getAttributes("{token:'def'}")));
+
+        Map<String, Object> otherTitle = getAttributes("{token:'abc'}");
+        otherTitle.put("title", "other");
+        assertNotEquals(key, cache.getKey(context, definitionService, def, otherTitle));
+    }
+
+    @Test
+    public void testNoKeyForComponentAttributes() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        Map<String, Object> attributes = getAttributes("{token:'abc'}");
+        attributes.put("body", Lists.newArrayList(new Object()));
+
+        assertNull(cache.getKey(getContext(), getDefinitionService(), getDef("v"), attributes));
+    }
+
+    @Test
+    public void testNoKeyForGlobalReferences() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+
+        assertNull(cache.getKey(getContext(), getDefinitionService(), getDef("$Global"),
+                getAttributes("{token:'abc'}")));
+    }
+
+    @Test
+    public void testRequestValueInSegmentIsUncacheable() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        Map<String, Object> attributes = getAttributes("{token:'abc'}");
+        // e.g. an html renderer writing the script nonce of this request, the same in both renders
+        String rendered = render(attributes) + "<script nonce=\"n0nce\"></script>";
+        String markedRender = render(cache.getMarkedAttributes(attributes)) + "<script nonce=\"n0nce\"></script>";
+
+        assertNull(cache.put(KEY, rendered, markedRender, attributes, Arrays.asList("n0nce", null)));
+        assertTrue(cache.isUncacheable(KEY));
+    }
+
+    @Test
+    public void testKeyUsesServerUid() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        DefinitionService definitionService = getDefinitionService();
+        ApplicationDef def = getDef("v");
+        AuraContext context = getContext();
+        AuraContext otherContext = getContext();
+        doReturn("clientUid").when(otherContext).getUid(any(DefDescriptor.class));
+
+        String key = cache.getKey(context, definitionService, def, getAttributes("{token:'abc'}"));
+        assertNotNull(key);
+        assertEquals(key, cache.getKey(otherContext, definitionService, def, getAttributes("{token:'abc'}")));
+
+        DefDescriptor<ApplicationDef> descriptor = def.getDescriptor();
+        doReturn("newUid").when(definitionService).getUid(null, descriptor);
+        assertNotEquals(key, cache.getKey(context, definitionService, def, getAttributes("{token:'abc'}")));
+    }
+
+    @Test
+    public void testNoKeyForBrowserReferences() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+
+        assertNull(cache.getKey(getContext(), getDefinitionService(), getDef("$Browser"),
+                getAttributes("{token:'abc'}")));
+    }
+
+    @Test
+    public void testNoKeyForModelInTemplateBody() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        DefinitionService definitionService = getDefinitionService();
+        ApplicationDef def = getDef("v");
+        ComponentDef greeting = addBodyComponent(definitionService, def.getTemplateDef(), "test:greeting");
+        DefDescriptor<ModelDef> model = mock(DefDescriptor.class);
+        doReturn(DefType.MODEL).when(model).getDefType();
+        doReturn(Collections.singleton(model)).when(greeting).getDependencySet();
+        doReturn(Collections.singletonList(model)).when(greeting).getModelDefDescriptors();
+
+        // the model writes the name of the current user, so each user must get a render of their own.
+        AuraContext alice = getContext();
+        AuraContext bob = getContext();
+        assertNull(cache.getKey(alice, definitionService, def, getAttributes("{token:'alice'}")));
+        assertNull(cache.getKey(bob, definitionService, def, getAttributes("{token:'bob'}")));
+    }
+
+    @Test
+    public void testNoKeyForCustomServerRendererInTemplateBody() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        DefinitionService definitionService = getDefinitionService();
+        ApplicationDef def = getDef("v");
+        ComponentDef custom = addBodyComponent(definitionService, def.getTemplateDef(), "test:custom");
+        DefDescriptor<RendererDef> renderer = mock(DefDescriptor.class);
+        doReturn(DefType.RENDERER).when(renderer).getDefType();
+        doReturn("java").when(renderer).getPrefix();
+        doReturn("java://test.CustomRenderer").when(renderer).getQualifiedName();
+        doReturn(Collections.singleton(renderer)).when(custom).getDependencySet();
+
+        assertNull(cache.getKey(getContext(), definitionService, def, getAttributes("{token:'abc'}")));
+    }
+
+    @Test
+    public void testKeyForFrameworkRendererInTemplateBody() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(10);
+        DefinitionService definitionService = getDefinitionService();
+        ApplicationDef def = getDef("v");
+        ComponentDef html = addBodyComponent(definitionService, def.getTemplateDef(), "aura:html");
+        DefDescriptor<RendererDef> renderer = mock(DefDescriptor.class);
+        doReturn(DefType.RENDERER).when(renderer).getDefType();
+        doReturn("java").when(renderer).getPrefix();
+        doReturn("java://org.auraframework.renderer.HtmlRenderer").when(renderer).getQualifiedName();
+        doReturn(Collections.singleton(renderer)).when(html).getDependencySet();
+
+        assertNotNull(cache.getKey(getContext(), definitionService, def, getAttributes("{token:'abc'}")));
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        InlineJsTemplateCache cache = new InlineJsTemplateCache(0);
+
+        assertNull(cache.getKey(getContext(), getDefinitionService(), getDef("v"), getAttributes("{token:'abc'}")));
+    }
+
+    private static Map<String, Object> getAttributes(String auraInit) {
+        Map<String, Object> attributes = Maps.newHashMap();
+        attributes.put("auraInit", auraInit);
+        attributes.put("appBootstrap", "");
+        attributes.put("title", "Aura");
+        attributes.put("autoInitialize", "true");
+        return attributes;
+    }
+
+    /**
+     * Stand in for rendering the script of a template.
+     */
+    private static String render(Map<String, Object> attributes) {
+        return "(function(){" + attributes.get("appBootstrap") + "var auraConfig = " + attributes.get("auraInit")
+                + ";if (" + attributes.get("autoInitialize") + ") { $A.initAsync(auraConfig); }})();";
+    }
+
+    private static DefinitionService getDefinitionService() throws Exception {
+        DefinitionService definitionService = mock(DefinitionService.class);
+        doReturn("appUid").when(definitionService).getUid(any(String.class), any(DefDescriptor.class));
+        return definitionService;
+    }
+
+    /**
+     * Put a component in the body of a template.
+     */
+    private static ComponentDef addBodyComponent(DefinitionService definitionService, ComponentDef templateDef,
+            String name) throws Exception {
+        DefDescriptor<ComponentDef> descriptor = mock(DefDescriptor.class);
+        doReturn(DefType.COMPONENT).when(descriptor).getDefType();
+        doReturn("markup://" + name).when(descriptor).getQualifiedName();
+        ComponentDef componentDef = mock(ComponentDef.class);
+        doReturn(descriptor).when(componentDef).getDescriptor();
+        doReturn(Collections.emptySet()).when(componentDef).getPropertyReferences();
+        doReturn(componentDef).when(definitionService).getDefinition(descriptor);
+        doReturn(Collections.singleton(descriptor)).when(templateDef).getDependencySet();
+        return componentDef;
+    }
+
+    private static AuraContext getContext() {
+        AuraContext context = mock(AuraContext.class);
+        doReturn("appUid").when(context).getUid(any(DefDescriptor.class));
+        doReturn(Mode.PROD).when(context).getMode();
+        return context;
+    }
+
+    private static ApplicationDef getDef(String root) throws Exception {
+        DefDescriptor<ApplicationDef> descriptor = mock(DefDescriptor.class);
+        doReturn("markup://test:app").when(descriptor).getQualifiedName();
+        DefDescriptor<ComponentDef> templateDescriptor = mock(DefDescriptor.class);
+        doReturn("markup://aura:template").when(templateDescriptor).getQualifiedName();
+
+        PropertyReference reference = mock(PropertyReference.class);
+        doReturn(root).when(reference).getRoot();
+        ComponentDef templateDef = mock(ComponentDef.class);
+        doReturn(templateDescriptor).when(templateDef).getDescriptor();
+        doReturn(Collections.singleton(reference)).when(templateDef).getPropertyReferences();
+
+        ApplicationDef def = mock(ApplicationDef.class);
+        doReturn(descriptor).when(def).getDescriptor();
+        doReturn(templateDef).when(def).getTemplateDef();
+        return def;
+    }
+}
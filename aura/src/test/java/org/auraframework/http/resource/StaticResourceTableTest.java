@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class StaticResourceTableTest {
+
+    private static final byte[] CONTENT = "body { margin: 0 }".getBytes();
+
+    @Test
+    public void testEntryIsKeptForFrameworkUid() throws Exception {
+        StaticResourceTable table = new StaticResourceTable(1024, false);
+
+        assertNull(table.get("fw1", "/aura/resources/reset.css"));
+        StaticResourceTable.Entry entry = table.put("fw1", "/aura/resources/reset.css", "text/css", CONTENT);
+
+        assertSame(entry, table.get("fw1", "/aura/resources/reset.css"));
+        assertEquals("text/css", entry.getContentType());
+        assertArrayEquals(CONTENT, entry.getContent());
+    }
+
+    @Test
+    public void testNewFrameworkUidDropsEntries() throws Exception {
+        StaticResourceTable table = new StaticResourceTable(1024, false);
+        table.get("fw1", "key");
+        table.put("fw1", "key", "text/css", CONTENT);
+
+        assertNull(table.get("fw2", "key"));
+        assertNull(table.get("fw2", "key"));
+        assertNull(table.get("fw1", "key"));
+    }
+
+    @Test
+    public void testStaleFrameworkUidIsNotStored() throws Exception {
+        StaticResourceTable table = new StaticResourceTable(1024, false);
+        table.get("fw2", "key");
+        table.put("fw1", "key", "text/css", CONTENT);
+
+        assertNull(table.get("fw2", "key"));
+    }
+
+    @Test
+    public void testETagFollowsContent() throws Exception {
+        StaticResourceTable table = new StaticResourceTable(1024, false);
+        String etag = table.put("fw1", "a", "text/css", CONTENT).getETag();
+
+        assertEquals(etag, table.put("fw1", "b", "text/css", CONTENT).getETag());
+        assertNotEquals(etag, table.put("fw1", "c", "text/css", "other".getBytes()).getETag());
+    }
+
+    @Test
+    public void testGzippedContent() throws Exception {
+        StaticResourceTable table = new StaticResourceTable(64 * 1024, true);
+        byte[] content = new byte[4096];
+        Arrays.fill(content, (byte) 'a');
+
+        StaticResourceTable.Entry entry = table.put("fw1", "key", "text/javascript", content);
+
+        assertArrayEquals(content, ByteStreams.toByteArray(new GZIPInputStream(
+                new ByteArrayInputStream(entry.getGzipped()))));
+        assertNotEquals(entry.getETag(), entry.getGzippedETag());
+        assertNull(table.put("fw1", "img", "image/png", content).getGzipped());
+    }
+
+    @Test
+    public void testDisabledTable() throws Exception {
+        StaticResourceTable table = new StaticResourceTable(0, false);
+        table.get("fw1", "key");
+        table.put("fw1", "key", "text/css", CONTENT);
+
+        assertNull(table.get("fw1", "key"));
+    }
+}